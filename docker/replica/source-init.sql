@@ -0,0 +1,2 @@
+CREATE USER 'replicator'@'%' IDENTIFIED BY 'replica';
+GRANT REPLICATION SLAVE ON *.* TO 'replicator'@'%';
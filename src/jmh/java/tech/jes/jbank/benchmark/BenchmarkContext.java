@@ -0,0 +1,57 @@
+package tech.jes.jbank.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.jes.jbank.JBankApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application against an in-memory H2 database in MySQL mode. The migrations in {@code db/migration}
+ * are MySQL only, so the schema comes from the entities instead. Rate limiting is off, since every simulated client
+ * shares the loopback address.
+ * <p>
+ * Any property also set as a system property on the benchmark JVM wins, so passing
+ * {@code -Dspring.datasource.*} through {@code -jvmArgs} points the suites at a real MySQL instead.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(WebApplicationType.NONE, extraProperties);
+    }
+
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                       String... extraProperties) {
+
+        var properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:jbank-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.flyway.enabled=false",
+                "spring.jpa.show-sql=false",
+                "spring.sql.init.mode=always",
+                "spring.sql.init.schema-locations=classpath:bench/h2-functions.sql",
+                "spring.docker.compose.enabled=false",
+                "jbank.rate-limit.enabled=false",
+                "logging.level.root=WARN"
+        ));
+        properties.addAll(List.of(extraProperties));
+
+        var args = properties.stream()
+                .filter(property -> System.getProperty(property.substring(0, property.indexOf('='))) == null)
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+
+        return new SpringApplicationBuilder(JBankApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+}
@@ -0,0 +1,44 @@
+package tech.jes.jbank.benchmark;
+
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds wallets straight through the repository so set-up stays out of the measured paths.
+ */
+public final class BenchmarkFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private BenchmarkFixtures() {
+    }
+
+    public static UUID createWallet(WalletRepository walletRepository, BigDecimal balance) {
+        return createWallets(walletRepository, 1, balance).getFirst();
+    }
+
+    public static List<UUID> createWallets(WalletRepository walletRepository, int count, BigDecimal balance) {
+        var wallets = new ArrayList<Wallet>(count);
+
+        for (int i = 0; i < count; i++) {
+            var n = SEQUENCE.incrementAndGet();
+            var wallet = new Wallet();
+            wallet.setCpf(String.format("%011d", n));
+            wallet.setEmail("bench-" + n + "@jbank.tech");
+            wallet.setName("bench " + n);
+            wallet.setBalance(balance);
+            wallets.add(wallet);
+        }
+
+        return walletRepository.saveAll(wallets)
+                .stream()
+                .map(Wallet::getWalletId)
+                .toList();
+    }
+}
@@ -0,0 +1,127 @@
+package tech.jes.jbank.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.jes.jbank.controller.dto.DepositMoneyDto;
+import tech.jes.jbank.exception.ConcurrentUpdateException;
+import tech.jes.jbank.repository.WalletRepository;
+import tech.jes.jbank.service.WalletService;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepositBenchmark {
+
+    private static final DepositMoneyDto DEPOSIT = new DepositMoneyDto(new BigDecimal("10.00"));
+    private static final String IP_ADDRESS = "127.0.0.1";
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"false", "true"})
+        boolean groupCommit;
+
+        @Param({"0ms"})
+        String dbLatency;
+
+        ConfigurableApplicationContext context;
+        WalletService walletService;
+        WalletRepository walletRepository;
+        UUID sharedWallet;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start(
+                    "spring.main.sources=" + SimulatedDatabaseLatency.class.getName(),
+                    "bench.db-latency=" + dbLatency,
+                    "jbank.deposit-batching.enabled=" + groupCommit
+            );
+            walletService = context.getBean(WalletService.class);
+            walletRepository = context.getBean(WalletRepository.class);
+            sharedWallet = BenchmarkFixtures.createWallet(walletRepository, BigDecimal.ZERO);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Account {
+
+        UUID wallet;
+
+        @Setup(Level.Trial)
+        public void setUp(Bank bank) {
+            wallet = BenchmarkFixtures.createWallet(bank.walletRepository, BigDecimal.ZERO);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long deposited;
+        public long exhausted;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            deposited = 0;
+            exhausted = 0;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void uncontended(Bank bank, Account account, Outcomes outcomes) {
+        deposit(bank, account.wallet, outcomes);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void privateWalletPerThread(Bank bank, Account account, Outcomes outcomes) {
+        deposit(bank, account.wallet, outcomes);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void crowdOfPrivateWallets(Bank bank, Account account, Outcomes outcomes) {
+        deposit(bank, account.wallet, outcomes);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void manyDepositorsOneWallet(Bank bank, Outcomes outcomes) {
+        deposit(bank, bank.sharedWallet, outcomes);
+    }
+
+    private static void deposit(Bank bank, UUID walletId, Outcomes outcomes) {
+        try {
+            bank.walletService.depositMoney(walletId, DEPOSIT, IP_ADDRESS);
+            outcomes.deposited++;
+        } catch (ConcurrentUpdateException e) {
+            outcomes.exhausted++;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package tech.jes.jbank.benchmark;
+
+import java.util.UUID;
+
+/**
+ * H2 stand-ins for the MySQL UUID functions used by the native statement queries.
+ * H2 stores {@link UUID} ids natively, so both functions are plain conversions.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    public static UUID uuidToBin(String value) {
+        return value == null ? null : UUID.fromString(value);
+    }
+
+    public static String binToUuid(UUID value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package tech.jes.jbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.jes.jbank.entities.Deposit;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.repository.DepositRepository;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts into {@code tb_deposits} in batches of {@value #BATCH_SIZE} (the Hibernate JDBC batch size) with random
+ * UUIDv4 keys and with time-ordered UUIDv7 keys. Scores are rows per second. The table starts with
+ * {@code existingRows} rows and keeps growing through the run, so the gap widens as the primary key outgrows
+ * the cache. Run it against MySQL for InnoDB numbers; H2 only shows the trend.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+    private static final BigDecimal VALUE = new BigDecimal("10.00");
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"false", "true"})
+        boolean timeOrdered;
+
+        @Param({"200000"})
+        int existingRows;
+
+        ConfigurableApplicationContext context;
+        DepositRepository depositRepository;
+        Wallet wallet;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start("jbank.ids.time-ordered=" + timeOrdered);
+            depositRepository = context.getBean(DepositRepository.class);
+
+            var walletRepository = context.getBean(WalletRepository.class);
+            wallet = walletRepository.getReferenceById(BenchmarkFixtures.createWallet(walletRepository, BigDecimal.ZERO));
+
+            for (int i = 0; i < existingRows; i += BATCH_SIZE) {
+                depositRepository.saveAll(batch(wallet));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch(Bank bank) {
+        bank.depositRepository.saveAll(batch(bank.wallet));
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatchConcurrently(Bank bank) {
+        bank.depositRepository.saveAll(batch(bank.wallet));
+    }
+
+    private static List<Deposit> batch(Wallet wallet) {
+        var now = LocalDateTime.now();
+        var deposits = new ArrayList<Deposit>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            var deposit = new Deposit();
+            deposit.setWallet(wallet);
+            deposit.setDepositValue(VALUE);
+            deposit.setDepositDatetime(now);
+            deposit.setIpAddress("127.0.0.1");
+            deposits.add(deposit);
+        }
+
+        return deposits;
+    }
+}
@@ -0,0 +1,102 @@
+package tech.jes.jbank.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adds a fixed round trip to every statement execution, commit and rollback, so an in-memory H2 behaves like a
+ * database across the network: the thread blocks while it holds a pooled connection. Enabled by adding this class
+ * to {@code spring.main.sources} and setting {@code bench.db-latency}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SimulatedDatabaseLatency {
+
+    private static final Set<String> ROUND_TRIPS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch",
+            "commit", "rollback"
+    );
+
+    @Bean
+    static BeanPostProcessor simulatedDatabaseLatencyPostProcessor(Environment environment) {
+        var latency = environment.getProperty("bench.db-latency", Duration.class, Duration.ZERO);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !latency.isZero()) {
+                    return new LatencyDataSource(dataSource, latency);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class LatencyDataSource extends DelegatingDataSource {
+
+        private final Duration latency;
+
+        private LatencyDataSource(DataSource target, Duration latency) {
+            super(target);
+            this.latency = latency;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, super.getConnection(), latency);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, super.getConnection(username, password), latency);
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Duration latency) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (ROUND_TRIPS.contains(method.getName())) {
+                Thread.sleep(latency);
+            }
+
+            var result = invoke(method, target, args);
+
+            if (result instanceof Statement statement && method.getDeclaringClass() == Connection.class) {
+                return proxy(Statement.class, statement, latency);
+            }
+            return result;
+        };
+
+        return type.cast(Proxy.newProxyInstance(target.getClass().getClassLoader(), interfacesOf(target), handler));
+    }
+
+    private static Class<?>[] interfacesOf(Object target) {
+        var interfaces = new LinkedHashSet<Class<?>>();
+        for (var type = target.getClass(); type != null; type = type.getSuperclass()) {
+            interfaces.addAll(List.of(type.getInterfaces()));
+        }
+        return interfaces.toArray(Class<?>[]::new);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package tech.jes.jbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching a new JVM with {@code JBankApplication} until its first successful request, a wallet creation
+ * that goes through validation, the repositories and a commit, which is what a pod added at a traffic spike waits
+ * before taking traffic. Runs the jar extracted by {@code ./mvnw -Pfast-startup
+ * package -Dfast-startup.training.skip=true} against an in-memory H2 in MySQL mode, with the Flyway migrations and
+ * the MySQL dialect, so the default mode still pays for schema validation.
+ * <ul>
+ *     <li>{@code default}: the jar as it starts today.</li>
+ *     <li>{@code cds}: with a CDS archive recorded by a training run of the same command.</li>
+ *     <li>{@code aot}: with the AOT-generated bean definitions and the {@code fast-startup} profile.</li>
+ *     <li>{@code aot-cds}: both, which is how {@code -Pfast-startup} deploys.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private static final String WALLET = "{\"cpf\": \"52998224725\", \"email\": \"startup@jbank.tech\", \"name\": \"Startup\"}";
+
+    @Param({"default", "cds", "aot", "aot-cds"})
+    String mode;
+
+    @Param({"target/fast-startup"})
+    String appDirectory;
+
+    private Path directory;
+    private String classpath;
+    private Path archive;
+    private HttpClient client;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Path.of(appDirectory).toAbsolutePath();
+        classpath = applicationJar() + File.pathSeparator + h2Jar();
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        if (mode.endsWith("cds")) {
+            archive = directory.resolve("startup-" + mode + ".jsa");
+            Files.deleteIfExists(archive);
+
+            var training = launch(freePort(), "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh");
+            if (!training.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS) || training.exitValue() != 0
+                    || !Files.exists(archive)) {
+                training.destroyForcibly();
+                throw new IllegalStateException("CDS training run failed, see " + log());
+            }
+        }
+    }
+
+    @Benchmark
+    public int firstSuccessfulRequest() throws Exception {
+        var port = freePort();
+        process = archive == null
+                ? launch(port)
+                : launch(port, "-XX:SharedArchiveFile=" + archive);
+
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/wallets"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(5))
+                .POST(HttpRequest.BodyPublishers.ofString(WALLET))
+                .build();
+        var deadline = System.nanoTime() + TIMEOUT.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("JBankApplication exited with " + process.exitValue() + ", see " + log());
+            }
+            try {
+                var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException e) {
+                // Tomcat is not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful request within " + TIMEOUT + ", see " + log());
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroyForcibly().waitFor();
+            process = null;
+        }
+    }
+
+    private Process launch(int port, String... jvmArgs) throws IOException {
+        var command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classpath
+        ));
+        command.addAll(List.of(jvmArgs));
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-Dspring.profiles.active=fast-startup");
+        }
+        command.addAll(List.of(
+                "tech.jes.jbank.JBankApplication",
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:jbank;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"
+        ));
+
+        return new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log().toFile())
+                .start();
+    }
+
+    private Path log() {
+        return directory.resolve("startup-" + mode + ".log");
+    }
+
+    private Path applicationJar() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + directory
+                            + ", run ./mvnw -Pfast-startup package -Dfast-startup.training.skip=true first"));
+        }
+    }
+
+    private static Path h2Jar() throws URISyntaxException {
+        return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package tech.jes.jbank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.jes.jbank.controller.dto.StatementDto;
+import tech.jes.jbank.entities.Deposit;
+import tech.jes.jbank.entities.Transfer;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.repository.DepositRepository;
+import tech.jes.jbank.repository.TransferRepository;
+import tech.jes.jbank.repository.WalletRepository;
+import tech.jes.jbank.service.LedgerService;
+import tech.jes.jbank.service.WalletService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"100", "10000"})
+    public int historySize;
+
+    @Param({"false", "true"})
+    public boolean ledgerStatements;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private UUID walletId;
+    private int lastPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("jbank.ledger.statements-enabled=" + ledgerStatements);
+        walletService = context.getBean(WalletService.class);
+
+        var walletRepository = context.getBean(WalletRepository.class);
+        var wallet = walletRepository.getReferenceById(
+                BenchmarkFixtures.createWallet(walletRepository, BigDecimal.ZERO));
+        var counterpart = walletRepository.getReferenceById(
+                BenchmarkFixtures.createWallet(walletRepository, BigDecimal.ZERO));
+
+        seedHistory(wallet, counterpart);
+
+        walletId = wallet.getWalletId();
+        lastPage = (historySize - 1) / PAGE_SIZE;
+    }
+
+    private void seedHistory(Wallet wallet, Wallet counterpart) {
+        var deposits = new ArrayList<Deposit>();
+        var transfers = new ArrayList<Transfer>();
+        var start = LocalDateTime.now().minusDays(365);
+
+        for (int i = 0; i < historySize; i++) {
+            var dateTime = start.plusSeconds(i);
+            var value = BigDecimal.valueOf(10 + i % 90);
+
+            switch (i % 3) {
+                case 0 -> {
+                    var deposit = new Deposit();
+                    deposit.setWallet(wallet);
+                    deposit.setDepositValue(value);
+                    deposit.setDepositDatetime(dateTime);
+                    deposit.setIpAddress("127.0.0.1");
+                    deposits.add(deposit);
+                }
+                case 1 -> transfers.add(transfer(counterpart, wallet, value, dateTime));
+                default -> transfers.add(transfer(wallet, counterpart, value, dateTime));
+            }
+        }
+
+        context.getBean(DepositRepository.class).saveAll(deposits);
+        context.getBean(TransferRepository.class).saveAll(transfers);
+
+        var ledgerService = context.getBean(LedgerService.class);
+        deposits.forEach(ledgerService::recordDeposit);
+        transfers.forEach(ledgerService::recordTransfer);
+    }
+
+    private static Transfer transfer(Wallet sender,
+                                     Wallet receiver,
+                                     BigDecimal value,
+                                     LocalDateTime dateTime) {
+        var transfer = new Transfer();
+        transfer.setSender(sender);
+        transfer.setReceiver(receiver);
+        transfer.setTransferValue(value);
+        transfer.setTransferDateTime(dateTime);
+        return transfer;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public StatementDto firstPage() {
+        return walletService.getStatements(walletId, 0, PAGE_SIZE, null, true);
+    }
+
+    @Benchmark
+    public StatementDto lastPage() {
+        return walletService.getStatements(walletId, lastPage, PAGE_SIZE, null, true);
+    }
+}
@@ -0,0 +1,134 @@
+package tech.jes.jbank.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits over HTTP from more concurrent clients than Tomcat's 200 platform request threads, against a database
+ * that answers every statement after {@code dbLatency}. Compare throughput and the {@code :failed} counter
+ * (pool timeouts and 5xx) across pool sizes to pick {@code spring.datasource.hikari.maximum-pool-size} for each
+ * thread mode. Raise the client count with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(400)
+public class ThreadModeBenchmark {
+
+    private static final String DEPOSIT = "{\"value\": 10.00}";
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"false", "true"})
+        boolean virtualThreads;
+
+        @Param({"10", "20", "50", "100"})
+        int poolSize;
+
+        @Param({"2ms"})
+        String dbLatency;
+
+        ConfigurableApplicationContext context;
+        WalletRepository walletRepository;
+        HttpClient client;
+        String baseUrl;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start(WebApplicationType.SERVLET,
+                    "spring.main.sources=" + SimulatedDatabaseLatency.class.getName(),
+                    "bench.db-latency=" + dbLatency,
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                    "spring.datasource.hikari.connection-timeout=2000"
+            );
+            walletRepository = context.getBean(WalletRepository.class);
+
+            var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        HttpRequest deposit;
+
+        @Setup(Level.Trial)
+        public void setUp(Server server) {
+            var wallet = BenchmarkFixtures.createWallet(server.walletRepository, BigDecimal.ZERO);
+            deposit = HttpRequest.newBuilder(URI.create(server.baseUrl + "/wallets/" + wallet + "/deposits"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(DEPOSIT))
+                    .build();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long deposited;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            deposited = 0;
+            failed = 0;
+        }
+    }
+
+    @Benchmark
+    public int deposit(Server server, Client client, Outcomes outcomes) throws IOException, InterruptedException {
+        var status = server.client.send(client.deposit, HttpResponse.BodyHandlers.discarding()).statusCode();
+
+        if (status == 200) {
+            outcomes.deposited++;
+        } else {
+            outcomes.failed++;
+        }
+        return status;
+    }
+}
@@ -0,0 +1,106 @@
+package tech.jes.jbank.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.jes.jbank.controller.dto.TransferMoneyDto;
+import tech.jes.jbank.exception.ConcurrentUpdateException;
+import tech.jes.jbank.repository.WalletRepository;
+import tech.jes.jbank.service.TransferService;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000000.00");
+    private static final BigDecimal VALUE = new BigDecimal("0.01");
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        ConfigurableApplicationContext context;
+        TransferService transferService;
+        WalletRepository walletRepository;
+        UUID hotReceiver;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start();
+            transferService = context.getBean(TransferService.class);
+            walletRepository = context.getBean(WalletRepository.class);
+            hotReceiver = BenchmarkFixtures.createWallet(walletRepository, BigDecimal.ZERO);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Accounts {
+
+        UUID sender;
+        UUID receiver;
+
+        @Setup(Level.Trial)
+        public void setUp(Bank bank) {
+            sender = BenchmarkFixtures.createWallet(bank.walletRepository, INITIAL_BALANCE);
+            receiver = BenchmarkFixtures.createWallet(bank.walletRepository, BigDecimal.ZERO);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long transferred;
+        public long exhausted;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            transferred = 0;
+            exhausted = 0;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void uncontended(Bank bank, Accounts accounts, Outcomes outcomes) {
+        transfer(bank, new TransferMoneyDto(accounts.sender, VALUE, accounts.receiver), outcomes);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void manySendersOneReceiver(Bank bank, Accounts accounts, Outcomes outcomes) {
+        transfer(bank, new TransferMoneyDto(accounts.sender, VALUE, bank.hotReceiver), outcomes);
+    }
+
+    private static void transfer(Bank bank, TransferMoneyDto dto, Outcomes outcomes) {
+        try {
+            bank.transferService.transferMoney(dto);
+            outcomes.transferred++;
+        } catch (ConcurrentUpdateException e) {
+            outcomes.exhausted++;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package tech.jes.jbank.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link RateLimiter#acquire} as done by {@code IpFilter} on every matching request, with
+ * 8 threads drawing from {@code clients} buckets: one hot client, where every call contends on the same CAS,
+ * or many clients spread over the map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "100000"})
+    int clients;
+
+    private RateLimiter limiter;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(1_000_000, Duration.ofSeconds(1).toNanos(), 1_000);
+        addresses = new String[clients];
+
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public long acquire() {
+        var address = addresses[ThreadLocalRandom.current().nextInt(clients)];
+        return limiter.acquire(address, System.nanoTime());
+    }
+}
@@ -0,0 +1,258 @@
+package tech.jes.jbank.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Drives a running instance over HTTP with the requests of the Bruno collection, in an open model (see
+ * {@link OpenLoop}), and reports throughput and p50/p99/p999 response times from HdrHistogram:
+ * <ol>
+ *     <li>{@code create}: {@code POST /wallets} for {@code --wallets} new wallets.</li>
+ *     <li>{@code deposit}: {@code POST /wallets/{id}/deposits} to give every wallet a balance to transfer.</li>
+ *     <li>{@code load}: {@code POST /transfers} from uniformly drawn senders to Zipf-distributed receivers, so a few
+ *     wallets receive most of the money, together with {@code GET /wallets/{id}/statements}. Run once for
+ *     {@code --warmup} and discarded, then for {@code --duration}.</li>
+ * </ol>
+ * The wallets are new on every run, so it can be pointed at the same database repeatedly. Run with
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec@load-test -Dload-test.args="--transfer-rate=500"}; the options
+ * are listed in {@link LoadTestOptions}.
+ */
+public final class LoadTest {
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+
+    private LoadTest(LoadTestOptions options, HttpClient client, ExecutorService executor) {
+        this.options = options;
+        this.client = client;
+        this.executor = executor;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            new LoadTest(options, client, executor).run();
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.println("Load test " + run + " against " + options.baseUrl() + ": " + options);
+
+        var wallets = createWallets();
+        if (wallets.size() < 2) {
+            throw new IllegalStateException("Only " + wallets.size() + " wallets were created, is "
+                    + options.baseUrl() + " up?");
+        }
+        seedDeposits(wallets);
+
+        var receivers = new ZipfDistribution(wallets.size(), options.zipfExponent());
+        if (!options.warmup().isZero()) {
+            load("warmup", options.warmup(), wallets, receivers);
+        }
+        load("load", options.duration(), wallets, receivers);
+
+        var top = Math.max(1, wallets.size() / 100);
+        System.out.printf("Receivers: the top %d of %d wallets (1%%) get %.1f%% of the transfers (zipf exponent %s)%n",
+                top, wallets.size(), receivers.share(top) * 100, options.zipfExponent());
+        System.out.println("Percentile distributions written to " + options.output().toAbsolutePath());
+    }
+
+    private List<UUID> createWallets() throws Exception {
+        var created = new AtomicReferenceArray<UUID>(options.wallets());
+
+        var operation = new OpenLoop.Operation() {
+
+            @Override
+            public HttpRequest request(long sequence) {
+                var body = "{\"cpf\": \"" + cpf(ThreadLocalRandom.current()) + "\", "
+                        + "\"email\": \"load-" + run + "-" + sequence + "@jbank.tech\", "
+                        + "\"name\": \"load " + sequence + "\"}";
+                return post("/wallets", body);
+            }
+
+            @Override
+            public void completed(long sequence, HttpResponse<Void> response) {
+                if (response.statusCode() == 201) {
+                    response.headers()
+                            .firstValue("Location")
+                            .map(location -> UUID.fromString(location.substring(location.lastIndexOf('/') + 1)))
+                            .ifPresent(walletId -> created.set((int) sequence, walletId));
+                }
+            }
+        };
+        var stats = new OperationStats("create");
+        phase("create", List.of(loop(stats, operation, options.createRate(), options.wallets(), Long.MAX_VALUE)),
+                List.of(stats), true);
+
+        var wallets = new ArrayList<UUID>(options.wallets());
+        for (int i = 0; i < created.length(); i++) {
+            if (created.get(i) != null) {
+                wallets.add(created.get(i));
+            }
+        }
+        return wallets;
+    }
+
+    private void seedDeposits(List<UUID> wallets) throws Exception {
+        if (options.depositsPerWallet() <= 0) {
+            return;
+        }
+        var body = "{\"value\": " + options.depositValue().toPlainString() + "}";
+
+        OpenLoop.Operation operation = sequence ->
+                post("/wallets/" + wallets.get((int) (sequence % wallets.size())) + "/deposits", body);
+        var stats = new OperationStats("deposit");
+        var count = (long) wallets.size() * options.depositsPerWallet();
+        phase("deposit", List.of(loop(stats, operation, options.depositRate(), count, Long.MAX_VALUE)),
+                List.of(stats), true);
+    }
+
+    private void load(String name, Duration duration, List<UUID> wallets, ZipfDistribution receivers)
+            throws Exception {
+        var value = options.transferValue().toPlainString();
+
+        OpenLoop.Operation transfer = sequence -> {
+            var random = ThreadLocalRandom.current();
+            var receiver = receivers.sample(random);
+            var sender = random.nextInt(wallets.size());
+            if (sender == receiver) {
+                sender = (sender + 1) % wallets.size();
+            }
+            return post("/transfers", "{\"sender\": \"" + wallets.get(sender) + "\", "
+                    + "\"receiver\": \"" + wallets.get(receiver) + "\", "
+                    + "\"value\": " + value + "}");
+        };
+        OpenLoop.Operation statement = sequence -> request("/wallets/"
+                + wallets.get(ThreadLocalRandom.current().nextInt(wallets.size())) + "/statements")
+                .GET()
+                .build();
+
+        var loops = new ArrayList<OpenLoop>();
+        var stats = new ArrayList<OperationStats>();
+
+        var transfers = new OperationStats("transfer");
+        loops.add(loop(transfers, transfer, options.transferRate(), Long.MAX_VALUE, duration.toNanos()));
+        stats.add(transfers);
+
+        if (options.statementRate() > 0) {
+            var statements = new OperationStats("statement");
+            loops.add(loop(statements, statement, options.statementRate(), Long.MAX_VALUE, duration.toNanos()));
+            stats.add(statements);
+        }
+
+        phase(name, loops, stats, !name.equals("warmup"));
+    }
+
+    private OpenLoop loop(OperationStats stats, OpenLoop.Operation operation, double rate, long count,
+                          long durationNanos) {
+        return new OpenLoop(client, executor, options.maxInFlight(), stats, operation, rate, count, durationNanos);
+    }
+
+    private void phase(String name, List<OpenLoop> loops, List<OperationStats> stats, boolean write)
+            throws Exception {
+        System.out.println();
+        System.out.println("Phase " + name);
+
+        var start = System.nanoTime();
+        var reporter = Executors.newSingleThreadScheduledExecutor();
+        var interval = options.reportInterval().toMillis();
+        reporter.scheduleAtFixedRate(() -> report(name, start, stats), interval, interval, TimeUnit.MILLISECONDS);
+
+        // one platform thread per loop keeps the arrival times away from the virtual threads sending the requests
+        var threads = loops.stream()
+                .map(loop -> Thread.ofPlatform().name("load-" + name).start(loop))
+                .toList();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        reporter.shutdown();
+        reporter.awaitTermination(1, TimeUnit.MINUTES);
+
+        var seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Phase %s finished in %.1f s%n", name, seconds);
+        System.out.println(OperationStats.header());
+        for (var operation : stats) {
+            System.out.println(operation.summary(seconds));
+            if (write) {
+                operation.write(options.output().resolve(operation.name() + ".hgrm"));
+            }
+        }
+
+        if (!stats.stream().allMatch(OperationStats::valid)) {
+            System.out.println("RESULTS INVALID: requests were dropped at --max-in-flight=" + options.maxInFlight()
+                    + ", so the percentiles leave out the requests the server could not take. Lower the rate.");
+        }
+    }
+
+    private void report(String name, long start, List<OperationStats> stats) {
+        var line = new StringBuilder(String.format("[%s %5.0f s]", name, (System.nanoTime() - start) / 1e9));
+        var seconds = options.reportInterval().toMillis() / 1000.0;
+
+        for (var operation : stats) {
+            var interval = operation.interval();
+            line.append(String.format("  %s %.1f/s p99 %.2f ms",
+                    operation.name(),
+                    interval.getTotalCount() / seconds,
+                    OperationStats.millis(interval.getValueAtPercentile(99))));
+        }
+        System.out.println(line);
+    }
+
+    private HttpRequest post(String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .timeout(options.requestTimeout());
+    }
+
+    // nine random digits and the two check digits
+    private static String cpf(RandomGenerator random) {
+        var digits = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        digits[9] = checkDigit(digits, 9);
+        digits[10] = checkDigit(digits, 10);
+
+        var cpf = new StringBuilder(11);
+        for (var digit : digits) {
+            cpf.append(digit);
+        }
+        return cpf.toString();
+    }
+
+    private static int checkDigit(int[] digits, int length) {
+        var sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += digits[i] * (length + 1 - i);
+        }
+        var digit = sum * 10 % 11;
+        return digit == 10 ? 0 : digit;
+    }
+}
@@ -0,0 +1,107 @@
+package tech.jes.jbank.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Options of {@link LoadTest}, given as {@code --name=value} arguments. Rates are requests per second.
+ *
+ * @param baseUrl           instance under test.
+ * @param wallets           wallets created by the run.
+ * @param createRate        wallet creations per second.
+ * @param depositsPerWallet seed deposits per wallet.
+ * @param depositRate       seed deposits per second.
+ * @param depositValue      value of each seed deposit.
+ * @param transferRate      transfers per second during the load phase.
+ * @param transferValue     value of each transfer.
+ * @param zipfExponent      skew of the transfer receivers; 0 is uniform, 1 sends most transfers to a few wallets.
+ * @param statementRate     statement reads per second during the load phase, 0 to skip them.
+ * @param warmup            load phase run and discarded before the measured one.
+ * @param duration          measured load phase.
+ * @param maxInFlight       requests in flight per operation before new ones are dropped.
+ * @param requestTimeout    time a request may take before it counts as a timeout, recorded at the time it waited.
+ * @param reportInterval    how often the running phase prints its throughput and latency.
+ * @param output            directory of the HdrHistogram percentile files of the measured phase.
+ */
+record LoadTestOptions(String baseUrl,
+                       int wallets,
+                       double createRate,
+                       int depositsPerWallet,
+                       double depositRate,
+                       BigDecimal depositValue,
+                       double transferRate,
+                       BigDecimal transferValue,
+                       double zipfExponent,
+                       double statementRate,
+                       Duration warmup,
+                       Duration duration,
+                       int maxInFlight,
+                       Duration requestTimeout,
+                       Duration reportInterval,
+                       Path output) {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("base-url", "http://localhost:8080"),
+            Map.entry("wallets", "1000"),
+            Map.entry("create-rate", "200"),
+            Map.entry("deposits-per-wallet", "1"),
+            Map.entry("deposit-rate", "500"),
+            Map.entry("deposit-value", "1000.00"),
+            Map.entry("transfer-rate", "200"),
+            Map.entry("transfer-value", "1.00"),
+            Map.entry("zipf-exponent", "1.0"),
+            Map.entry("statement-rate", "50"),
+            Map.entry("warmup", "10s"),
+            Map.entry("duration", "60s"),
+            Map.entry("max-in-flight", "1000"),
+            Map.entry("request-timeout", "10s"),
+            Map.entry("report-interval", "5s"),
+            Map.entry("output", "target/load-test")
+    );
+
+    static LoadTestOptions parse(String... args) {
+        var values = new HashMap<>(DEFAULTS);
+
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            var name = arg.substring(2, separator);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option " + name + ", expected one of " + names());
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+                values.get("base-url"),
+                Integer.parseInt(values.get("wallets")),
+                Double.parseDouble(values.get("create-rate")),
+                Integer.parseInt(values.get("deposits-per-wallet")),
+                Double.parseDouble(values.get("deposit-rate")),
+                new BigDecimal(values.get("deposit-value")),
+                Double.parseDouble(values.get("transfer-rate")),
+                new BigDecimal(values.get("transfer-value")),
+                Double.parseDouble(values.get("zipf-exponent")),
+                Double.parseDouble(values.get("statement-rate")),
+                DurationStyle.detectAndParse(values.get("warmup")),
+                DurationStyle.detectAndParse(values.get("duration")),
+                Integer.parseInt(values.get("max-in-flight")),
+                DurationStyle.detectAndParse(values.get("request-timeout")),
+                DurationStyle.detectAndParse(values.get("report-interval")),
+                Path.of(values.get("output"))
+        );
+    }
+
+    private static Set<String> names() {
+        return new TreeSet<>(DEFAULTS.keySet());
+    }
+}
@@ -0,0 +1,111 @@
+package tech.jes.jbank.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Sends one operation at a fixed arrival rate, whether or not the earlier requests came back, the way independent
+ * users do. A closed loop of N clients slows down with the server and under-reports its latency; here a slow server
+ * piles up requests in flight, and each one is timed from when it was due, up to its timeout. Requests that would
+ * exceed {@code maxInFlight} are dropped and counted, which means the rate is beyond what the server sustains and
+ * the phase's percentiles are not valid.
+ */
+final class OpenLoop implements Runnable {
+
+    /**
+     * Builds request number {@code sequence} and receives its response.
+     */
+    interface Operation {
+
+        HttpRequest request(long sequence);
+
+        default void completed(long sequence, HttpResponse<Void> response) {
+        }
+    }
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final OperationStats stats;
+    private final Operation operation;
+    private final double rate;
+    private final long count;
+    private final long durationNanos;
+
+    /**
+     * Sends {@code count} requests, or as many as fit in {@code durationNanos}, whichever comes first.
+     */
+    OpenLoop(HttpClient client,
+             ExecutorService executor,
+             int maxInFlight,
+             OperationStats stats,
+             Operation operation,
+             double rate,
+             long count,
+             long durationNanos) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException(stats.name() + " rate must be positive");
+        }
+        this.client = client;
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.stats = stats;
+        this.operation = operation;
+        this.rate = rate;
+        this.count = count;
+        this.durationNanos = durationNanos;
+    }
+
+    @Override
+    public void run() {
+        var start = System.nanoTime();
+
+        for (long sequence = 0; sequence < count; sequence++) {
+            var offset = (long) (sequence * 1_000_000_000L / rate);
+            if (offset >= durationNanos) {
+                break;
+            }
+
+            var scheduled = start + offset;
+            // when the loop falls behind it sends right away, and the delay still counts in the response time
+            for (var wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (!inFlight.tryAcquire()) {
+                stats.drop();
+                continue;
+            }
+
+            var request = operation.request(sequence);
+            var current = sequence;
+            executor.execute(() -> send(current, scheduled, request));
+        }
+
+        // waits for the requests still in flight, which the client times out
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    private void send(long sequence, long scheduled, HttpRequest request) {
+        try {
+            var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            stats.record(scheduled, System.nanoTime(), response.statusCode());
+            operation.completed(sequence, response);
+        } catch (HttpTimeoutException e) {
+            stats.timeout(scheduled, System.nanoTime());
+        } catch (Exception e) {
+            stats.error();
+        } finally {
+            inFlight.release();
+        }
+    }
+}
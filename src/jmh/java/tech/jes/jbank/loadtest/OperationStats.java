@@ -0,0 +1,130 @@
+package tech.jes.jbank.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes and response times of one operation during one phase. Response times are in microseconds and start at
+ * the time the request was scheduled, not sent, so a stalled server is charged for the requests that queued behind
+ * it. Timed out requests are recorded at the time they waited. Dropped requests have no response time at all, so
+ * a phase that dropped any is flagged as invalid: its percentiles leave out the requests the server could not take.
+ */
+final class OperationStats {
+
+    private final String name;
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram total = new Histogram(3);
+    private Histogram interval;
+
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long scheduledNanos, long completedNanos, int status) {
+        recordTime(scheduledNanos, completedNanos);
+
+        if (status / 100 == 2) {
+            ok.increment();
+        } else if (status == 429) {
+            limited.increment();
+        } else if (status / 100 == 4) {
+            rejected.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    void timeout(long scheduledNanos, long timedOutNanos) {
+        recordTime(scheduledNanos, timedOutNanos);
+        timeouts.increment();
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    long ok() {
+        return ok.sum();
+    }
+
+    boolean valid() {
+        return dropped.sum() == 0;
+    }
+
+    private void recordTime(long scheduledNanos, long endNanos) {
+        recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(endNanos - scheduledNanos)));
+    }
+
+    /**
+     * Moves what was recorded since the last call into the phase total and returns it.
+     */
+    synchronized Histogram interval() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return interval;
+    }
+
+    static String header() {
+        return String.format("%-10s %9s %9s %9s %8s %8s %8s %8s %8s %10s %9s %9s %9s %9s %8s",
+                "operation", "completed", "ok", "rejected", "limited", "failed", "timeouts", "errors", "dropped",
+                "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "result");
+    }
+
+    String summary(double seconds) {
+        interval();
+        return String.format("%-10s %9d %9d %9d %8d %8d %8d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %8s",
+                name,
+                total.getTotalCount(),
+                ok.sum(),
+                rejected.sum(),
+                limited.sum(),
+                failed.sum(),
+                timeouts.sum(),
+                errors.sum(),
+                dropped.sum(),
+                ok.sum() / seconds,
+                millis(total.getValueAtPercentile(50)),
+                millis(total.getValueAtPercentile(99)),
+                millis(total.getValueAtPercentile(99.9)),
+                millis(total.getMaxValue()),
+                valid() ? "valid" : "INVALID");
+    }
+
+    /**
+     * Writes the phase total as an HdrHistogram percentile distribution in milliseconds, which the HdrHistogram
+     * plotter reads.
+     */
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (var out = new PrintStream(Files.newOutputStream(file))) {
+            total.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
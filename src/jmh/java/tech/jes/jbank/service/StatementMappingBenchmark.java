@@ -0,0 +1,75 @@
+package tech.jes.jbank.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tech.jes.jbank.repository.dto.StatementView;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-row {@link WalletService#mapToDto} step in isolation, over a page
+ * mixing deposits, transfers sent and transfers received.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementMappingBenchmark {
+
+    private static final int ROWS = 10;
+
+    private WalletService walletService;
+    private UUID walletId;
+    private StatementView[] rows;
+
+    record Row(String getStatementId,
+               String getType,
+               BigDecimal getStatementValue,
+               String getWalletReceiver,
+               String getWalletSender,
+               LocalDateTime getStatementDateTime) implements StatementView {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        walletService = new WalletService(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        walletId = UUID.randomUUID();
+
+        var wallet = walletId.toString();
+        var counterpart = UUID.randomUUID().toString();
+        var now = LocalDateTime.now();
+
+        rows = new StatementView[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            var id = UUID.randomUUID().toString();
+            var value = BigDecimal.valueOf(10 + i);
+            rows[i] = switch (i % 3) {
+                case 0 -> new Row(id, "deposit", value, wallet, "", now);
+                case 1 -> new Row(id, "transfer", value, wallet, counterpart, now);
+                default -> new Row(id, "transfer", value, counterpart, wallet, now);
+            };
+        }
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole blackhole) {
+        for (var row : rows) {
+            blackhole.consume(walletService.mapToDto(walletId, row));
+        }
+    }
+}
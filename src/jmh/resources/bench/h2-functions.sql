@@ -0,0 +1,2 @@
+CREATE ALIAS IF NOT EXISTS UUID_TO_BIN FOR 'tech.jes.jbank.benchmark.H2Functions.uuidToBin';
+CREATE ALIAS IF NOT EXISTS BIN_TO_UUID FOR 'tech.jes.jbank.benchmark.H2Functions.binToUuid';
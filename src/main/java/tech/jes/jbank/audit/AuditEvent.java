@@ -0,0 +1,18 @@
+package tech.jes.jbank.audit;
+
+import java.time.Instant;
+
+public record AuditEvent(Instant occurredAt,
+                         String method,
+                         String url,
+                         int statusCode,
+                         String ipAddress) {
+
+    static final int URL_MAX_LENGTH = 2048;
+
+    public AuditEvent {
+        if (url.length() > URL_MAX_LENGTH) {
+            url = url.substring(0, URL_MAX_LENGTH);
+        }
+    }
+}
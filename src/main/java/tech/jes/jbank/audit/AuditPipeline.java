@@ -0,0 +1,152 @@
+package tech.jes.jbank.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.AuditProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands audit events from request threads to a single background writer through a {@link RingBuffer},
+ * so publishing costs one CAS instead of a log line or an INSERT. The writer flushes whatever is buffered,
+ * up to {@code batchSize} events at a time, to the configured {@link AuditSink}.
+ * <p>
+ * Stops after the web server, draining every buffered event before the sink and the datasource close.
+ * Publishes {@code jbank.audit.events} tagged by outcome and the {@code jbank.audit.buffer.size} gauge.
+ */
+@Component
+public class AuditPipeline implements SmartLifecycle {
+
+    private static final long BLOCK_PARK_NANOS = Duration.ofMillis(1).toNanos();
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Logger logger = LoggerFactory.getLogger(AuditPipeline.class);
+
+    private final AuditSink auditSink;
+    private final AuditProperties auditProperties;
+    private final RingBuffer<AuditEvent> buffer;
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter sampledOut;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditPipeline(AuditSink auditSink, AuditProperties auditProperties, MeterRegistry meterRegistry) {
+        this.auditSink = auditSink;
+        this.auditProperties = auditProperties;
+        this.buffer = new RingBuffer<>(auditProperties.bufferCapacity());
+
+        this.written = meterRegistry.counter("jbank.audit.events", "outcome", "written");
+        this.dropped = meterRegistry.counter("jbank.audit.events", "outcome", "dropped");
+        this.sampledOut = meterRegistry.counter("jbank.audit.events", "outcome", "sampled_out");
+        this.failed = meterRegistry.counter("jbank.audit.events", "outcome", "failed");
+        Gauge.builder("jbank.audit.buffer.size", buffer, RingBuffer::size).register(meterRegistry);
+    }
+
+    public void publish(AuditEvent event) {
+        var accepted = switch (auditProperties.backPressure()) {
+            case DROP -> buffer.offer(event);
+            case BLOCK -> offerWithin(event, auditProperties.blockTimeout());
+            case SAMPLE -> {
+                if (buffer.size() >= buffer.capacity() / 2
+                        && sampleSequence.incrementAndGet() % auditProperties.sampleRate() != 0) {
+                    sampledOut.increment();
+                    yield true;
+                }
+                yield buffer.offer(event);
+            }
+        };
+
+        if (!accepted) {
+            dropped.increment();
+        }
+    }
+
+    private boolean offerWithin(AuditEvent event, Duration timeout) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+
+        while (!buffer.offer(event)) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("audit-writer")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+
+        try {
+            if (!writer.join(STOP_TIMEOUT)) {
+                logger.warn("Audit writer did not drain within {} - Pending: {}", STOP_TIMEOUT, buffer.size());
+            }
+            auditSink.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Audit sink failed to close", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        var batchSize = auditProperties.batchSize();
+        var batch = new ArrayList<AuditEvent>(batchSize);
+
+        while (running || buffer.size() > 0) {
+            var drained = buffer.drainTo(batch, batchSize);
+
+            if (drained > 0) {
+                flush(batch);
+                batch.clear();
+            }
+            if (drained < batchSize && running) {
+                LockSupport.parkNanos(auditProperties.flushInterval().toNanos());
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        try {
+            auditSink.write(batch);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            logger.error("Audit batch lost - Events: {}", batch.size(), e);
+        }
+    }
+}
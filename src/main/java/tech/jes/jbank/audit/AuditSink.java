@@ -0,0 +1,14 @@
+package tech.jes.jbank.audit;
+
+import java.util.List;
+
+/**
+ * Destination of the audit trail. Only ever called from the audit writer thread.
+ */
+public interface AuditSink {
+
+    void write(List<AuditEvent> events) throws Exception;
+
+    default void close() throws Exception {
+    }
+}
@@ -0,0 +1,16 @@
+package tech.jes.jbank.audit;
+
+/**
+ * What a request thread does with an audit event when the writer falls behind.
+ */
+public enum BackPressure {
+
+    /** Discard the event when the buffer is full. */
+    DROP,
+
+    /** Wait up to {@code jbank.audit.block-timeout} for room, then discard. */
+    BLOCK,
+
+    /** Keep one in {@code jbank.audit.sample-rate} events once the buffer is half full; discard when full. */
+    SAMPLE
+}
@@ -0,0 +1,93 @@
+package tech.jes.jbank.audit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.AuditProperties;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Appends events to {@code audit.bin} as binary records:
+ * {@code long epochMillis (UTC), short statusCode, UTF method, UTF url, UTF ipAddress}.
+ * When the file reaches {@code jbank.audit.file.max-file-size} it is renamed to
+ * {@code audit-<timestamp>.bin} and only the newest {@code jbank.audit.file.max-files} rotated files are kept.
+ */
+@Component
+@ConditionalOnProperty(prefix = "jbank.audit", name = "sink", havingValue = "file")
+public class FileAuditSink implements AuditSink {
+
+    private static final String CURRENT_FILE = "audit.bin";
+    private static final DateTimeFormatter ROTATED_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private final AuditProperties.File properties;
+    private final Path current;
+
+    private DataOutputStream out;
+
+    public FileAuditSink(AuditProperties auditProperties) {
+        this.properties = auditProperties.file();
+        this.current = properties.directory().resolve(CURRENT_FILE);
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) throws IOException {
+        if (out == null) {
+            open();
+        }
+
+        for (var event : events) {
+            out.writeLong(event.occurredAt().toEpochMilli());
+            out.writeShort(event.statusCode());
+            out.writeUTF(event.method());
+            out.writeUTF(event.url());
+            out.writeUTF(event.ipAddress() == null ? "" : event.ipAddress());
+        }
+        out.flush();
+
+        if (Files.size(current) >= properties.maxFileSize().toBytes()) {
+            rotate();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(properties.directory());
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(current,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND
+        )));
+    }
+
+    private void rotate() throws IOException {
+        close();
+        var rotatedName = "audit-" + ROTATED_SUFFIX.format(LocalDateTime.now()) + ".bin";
+        Files.move(current, properties.directory().resolve(rotatedName));
+
+        try (var files = Files.list(properties.directory())) {
+            var rotated = files
+                    .filter(file -> file.getFileName().toString().startsWith("audit-"))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+
+            for (var old : rotated.subList(Math.min(properties.maxFiles(), rotated.size()), rotated.size())) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package tech.jes.jbank.audit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts each batch into tb_audit with one JDBC batch, which the driver rewrites into a multi-row INSERT.
+ */
+@Component
+@ConditionalOnProperty(prefix = "jbank.audit", name = "sink", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcAuditSink implements AuditSink {
+
+    private static final String SQL_INSERT = """
+            INSERT INTO tb_audit (occurred_at, method, url, status_code, ip_address)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(SQL_INSERT, events, events.size(), (ps, event) -> {
+            // tb_audit keeps the local date time of the JVM's zone, as the entity always wrote it
+            ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+            ps.setString(2, event.method());
+            ps.setString(3, event.url());
+            ps.setInt(4, event.statusCode());
+            ps.setString(5, event.ipAddress());
+        });
+    }
+}
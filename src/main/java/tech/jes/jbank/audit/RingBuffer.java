@@ -0,0 +1,87 @@
+package tech.jes.jbank.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer queue. Producers claim a slot with one CAS on the tail and
+ * publish it through the slot's sequence number, so {@link #offer} never takes a lock and fails fast when full.
+ */
+final class RingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    RingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        mask = capacity - 1;
+        elements = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        var position = tail.get();
+
+        while (true) {
+            var index = (int) (position & mask);
+            var available = sequences.get(index) - position;
+
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published elements into {@code target}. Must only be called from the consumer thread.
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(List<E> target, int max) {
+        var position = head.get();
+        int drained = 0;
+
+        while (drained < max) {
+            var index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+
+            target.add((E) elements[index]);
+            elements[index] = null;
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+
+        head.set(position);
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
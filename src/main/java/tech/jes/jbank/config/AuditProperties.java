@@ -0,0 +1,45 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import tech.jes.jbank.audit.BackPressure;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param sink           where the writer sends audit events
+ * @param bufferCapacity events held between request threads and the writer, rounded up to a power of two
+ * @param batchSize      most events written per insert batch or file flush
+ * @param flushInterval  how long the writer waits for more events when it drains less than a full batch
+ * @param backPressure   what to do with new events when the buffer fills up
+ * @param sampleRate     with {@link BackPressure#SAMPLE}, keep one in this many events once the buffer is half full
+ * @param blockTimeout   with {@link BackPressure#BLOCK}, longest a request waits for room before dropping the event
+ * @param file           settings of the file sink
+ */
+@ConfigurationProperties(prefix = "jbank.audit")
+public record AuditProperties(@DefaultValue("jdbc") Sink sink,
+                              @DefaultValue("8192") int bufferCapacity,
+                              @DefaultValue("500") int batchSize,
+                              @DefaultValue("200ms") Duration flushInterval,
+                              @DefaultValue("drop") BackPressure backPressure,
+                              @DefaultValue("10") int sampleRate,
+                              @DefaultValue("50ms") Duration blockTimeout,
+                              @DefaultValue File file) {
+
+    public enum Sink {
+        JDBC,
+        FILE
+    }
+
+    /**
+     * @param directory   folder of the current {@code audit.bin} and its rotated copies
+     * @param maxFileSize size at which the current file is rotated
+     * @param maxFiles    rotated files kept, oldest deleted first
+     */
+    public record File(@DefaultValue("./audit") Path directory,
+                       @DefaultValue("64MB") DataSize maxFileSize,
+                       @DefaultValue("10") int maxFiles) {
+    }
+}
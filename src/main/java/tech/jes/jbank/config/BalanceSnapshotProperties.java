@@ -0,0 +1,19 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled     whether this instance runs the snapshot job; turn it on in one instance only
+ * @param interval    delay between snapshot runs; a point-in-time query reads at most this much history
+ * @param settleDelay how far behind the clock snapshots are taken, so transactions still in flight are not missed
+ * @param batchSize   wallets read and snapshotted per transaction
+ */
+@ConfigurationProperties(prefix = "jbank.balance-snapshot")
+public record BalanceSnapshotProperties(@DefaultValue("false") boolean enabled,
+                                        @DefaultValue("1h") Duration interval,
+                                        @DefaultValue("1m") Duration settleDelay,
+                                        @DefaultValue("1000") int batchSize) {
+}
@@ -0,0 +1,37 @@
+package tech.jes.jbank.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Decides, per connection, whether a read may go to a replica: only work inside a read-only transaction
+ * that was not pinned to the primary with {@link #onPrimary(Supplier)}.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = ThreadLocal.withInitial(() -> false);
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Runs {@code work} with every connection it opens taken from the primary, read-only or not.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PRIMARY_PINNED.get()) {
+            return work.get();
+        }
+
+        PRIMARY_PINNED.set(true);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_PINNED.remove();
+        }
+    }
+
+    static boolean useReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PRIMARY_PINNED.get();
+    }
+}
@@ -0,0 +1,19 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled       queue deposits and commit them in groups instead of one transaction each
+ * @param maxBatchSize  most deposits committed in one transaction
+ * @param maxWait       longest the first deposit of a group waits for others to join it
+ * @param queueCapacity deposits waiting for a group; when full, new deposits commit on their own
+ */
+@ConfigurationProperties(prefix = "jbank.deposit-batching")
+public record DepositBatchingProperties(@DefaultValue("false") boolean enabled,
+                                        @DefaultValue("200") int maxBatchSize,
+                                        @DefaultValue("2ms") Duration maxWait,
+                                        @DefaultValue("10000") int queueCapacity) {
+}
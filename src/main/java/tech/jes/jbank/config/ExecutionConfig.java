@@ -0,0 +1,16 @@
+package tech.jes.jbank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * {@code @Async} methods run on Spring Boot's {@code applicationTaskExecutor} and {@code @Scheduled} jobs on its
+ * {@code taskScheduler}. With {@code spring.threads.virtual.enabled=true} (profile {@code virtual-threads}) both,
+ * as well as Tomcat's request threads, become virtual threads.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ExecutionConfig {
+}
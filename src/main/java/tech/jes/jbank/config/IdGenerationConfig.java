@@ -0,0 +1,18 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.jes.jbank.entities.TimeOrderedUuidGenerator;
+
+/**
+ * Id generators are created by Hibernate, not by Spring, so the choice of generator reaches them as a Hibernate setting.
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idGenerationCustomizer(IdProperties idProperties) {
+        return properties -> properties.put(TimeOrderedUuidGenerator.TIME_ORDERED_SETTING, idProperties.timeOrdered());
+    }
+}
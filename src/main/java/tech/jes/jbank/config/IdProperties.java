@@ -0,0 +1,11 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param timeOrdered generate UUIDv7 keys for wallets, deposits, transfers and ledger entries instead of random UUIDv4
+ */
+@ConfigurationProperties(prefix = "jbank.ids")
+public record IdProperties(@DefaultValue("false") boolean timeOrdered) {
+}
@@ -0,0 +1,24 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param cacheSize         completed keys kept in memory, in front of tb_idempotency_keys
+ * @param cacheTtl          how long a completed key stays in memory after it was written
+ * @param waitTimeout       longest a duplicate waits for the request in flight before getting a 409
+ * @param inProgressTimeout age after which a key still in progress is taken to belong to a request that died, and a
+ *                          retry may run it again; must exceed the longest a request can take, retries included
+ * @param retention         age after which keys are deleted and may be reused
+ * @param cleanupInterval   delay between runs of the job that deletes expired keys
+ */
+@ConfigurationProperties(prefix = "jbank.idempotency")
+public record IdempotencyProperties(@DefaultValue("10000") long cacheSize,
+                                    @DefaultValue("10m") Duration cacheTtl,
+                                    @DefaultValue("5s") Duration waitTimeout,
+                                    @DefaultValue("1m") Duration inProgressTimeout,
+                                    @DefaultValue("24h") Duration retention,
+                                    @DefaultValue("1h") Duration cleanupInterval) {
+}
@@ -0,0 +1,16 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param statementsEnabled serve statements from tb_ledger_entries instead of the transfer/deposit UNION.
+ *                          Only turn it on once the backfill has completed.
+ * @param backfillOnStartup copy the transfer and deposit history into the ledger when the application starts
+ * @param backfillBatchSize rows inserted per backfill transaction
+ */
+@ConfigurationProperties(prefix = "jbank.ledger")
+public record LedgerProperties(@DefaultValue("false") boolean statementsEnabled,
+                               @DefaultValue("false") boolean backfillOnStartup,
+                               @DefaultValue("1000") int backfillBatchSize) {
+}
@@ -0,0 +1,16 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param rebuildOnStartup recompute tb_monthly_summaries from the deposit and transfer history when the application
+ *                         starts; needed once for the history recorded before the table existed
+ * @param rebuildBatchSize wallets rebuilt per transaction
+ * @param maxMonths        widest range a summary query may ask for
+ */
+@ConfigurationProperties(prefix = "jbank.monthly-summary")
+public record MonthlySummaryProperties(@DefaultValue("false") boolean rebuildOnStartup,
+                                       @DefaultValue("1000") int rebuildBatchSize,
+                                       @DefaultValue("120") int maxMonths) {
+}
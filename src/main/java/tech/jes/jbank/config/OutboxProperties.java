@@ -0,0 +1,47 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param enabled       write an outbox event for every deposit and transfer
+ * @param publish       run the publisher in this instance; with several instances they share the backlog
+ * @param sink          where the publisher sends events
+ * @param batchSize     most events read, published and deleted per transaction
+ * @param pollInterval  how long the publisher waits after reading less than a full batch
+ * @param retryInterval how long the publisher waits after the sink fails
+ * @param memory        settings of the in-memory sink
+ * @param file          settings of the file sink
+ */
+@ConfigurationProperties(prefix = "jbank.outbox")
+public record OutboxProperties(@DefaultValue("true") boolean enabled,
+                               @DefaultValue("true") boolean publish,
+                               @DefaultValue("memory") Sink sink,
+                               @DefaultValue("500") int batchSize,
+                               @DefaultValue("200ms") Duration pollInterval,
+                               @DefaultValue("5s") Duration retryInterval,
+                               @DefaultValue Memory memory,
+                               @DefaultValue File file) {
+
+    public enum Sink {
+        MEMORY,
+        FILE
+    }
+
+    /**
+     * @param capacity most recent events kept, oldest dropped first
+     */
+    public record Memory(@DefaultValue("10000") int capacity) {
+    }
+
+    /**
+     * @param directory folder of {@code outbox.ndjson}
+     * @param fsync     force every batch to disk before its rows are deleted
+     */
+    public record File(@DefaultValue("./outbox") Path directory,
+                       @DefaultValue("true") boolean fsync) {
+    }
+}
@@ -0,0 +1,46 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @param enabled          enforce the rules in {@code IpFilter}
+ * @param evictionInterval how often clients whose bucket has refilled are forgotten
+ * @param rules            limits, each checked on its own; a request must pass every rule it matches
+ */
+@ConfigurationProperties(prefix = "jbank.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("1m") Duration evictionInterval,
+                                  @DefaultValue List<Rule> rules) {
+
+    public enum Key {
+        /**
+         * the client address, {@code getRemoteAddr()}
+         */
+        IP,
+        /**
+         * the {@code {walletId}} variable of the path pattern
+         */
+        WALLET
+    }
+
+    /**
+     * @param path    Spring path pattern, for example {@code /transfers/**} or {@code /wallets/{walletId}/deposits}
+     * @param methods HTTP methods the rule applies to; empty means all
+     * @param key     what each bucket belongs to
+     * @param permits requests refilled per period
+     * @param period  refill period
+     * @param burst   requests allowed at once from an idle client; defaults to {@code permits}
+     */
+    public record Rule(String path,
+                       @DefaultValue Set<String> methods,
+                       @DefaultValue("ip") Key key,
+                       int permits,
+                       @DefaultValue("1s") Duration period,
+                       Integer burst) {
+    }
+}
@@ -0,0 +1,27 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param enabled                whether read-only transactions are routed to {@code instances}
+ * @param instances              read replicas of {@code spring.datasource}, used in turn
+ * @param readYourWritesWindow   how long reads about a wallet stay on the primary after a change to it commits;
+ *                               keep it above the usual replication lag, zero turns it off
+ */
+@ConfigurationProperties(prefix = "jbank.replicas")
+public record ReplicaProperties(@DefaultValue("false") boolean enabled,
+                                @DefaultValue List<Instance> instances,
+                                @DefaultValue("2s") Duration readYourWritesWindow) {
+
+    /**
+     * Credentials default to the primary's.
+     */
+    public record Instance(String url,
+                           String username,
+                           String password) {
+    }
+}
@@ -0,0 +1,91 @@
+package tech.jes.jbank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+/**
+ * Replaces Spring Boot's single pool with a primary pool plus one pool per replica, behind a lazy routing proxy.
+ * Writes, and anything not in a read-only transaction, always use the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jbank.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties,
+                                              ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+
+        // docker compose publishes the primary's address as connection details, which win over the properties
+        var details = connectionDetails.getIfAvailable();
+        var builder = DataSourceBuilder.create().type(HikariDataSource.class);
+
+        if (details != null) {
+            builder.url(details.getJdbcUrl())
+                    .username(details.getUsername())
+                    .password(details.getPassword())
+                    .driverClassName(details.getDriverClassName());
+        } else {
+            builder.url(dataSourceProperties.determineUrl())
+                    .username(dataSourceProperties.determineUsername())
+                    .password(dataSourceProperties.determinePassword())
+                    .driverClassName(dataSourceProperties.determineDriverClassName());
+        }
+
+        var primary = builder.build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties replicaProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+
+        var replicas = new ArrayList<HikariDataSource>();
+
+        for (var instance : replicaProperties.instances()) {
+            var replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(instance.url())
+                    .username(instance.username() != null ? instance.username() : primaryDataSource.getUsername())
+                    .password(instance.password() != null ? instance.password() : primaryDataSource.getPassword())
+                    .driverClassName(primaryDataSource.getDriverClassName())
+                    .build();
+
+            replica.setPoolName("replica-" + replicas.size());
+            // unset pool sizes stay at -1 until Hikari validates its configuration
+            if (primaryDataSource.getMaximumPoolSize() > 0) {
+                replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(registry ->
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+
+            replicas.add(replica);
+        }
+
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
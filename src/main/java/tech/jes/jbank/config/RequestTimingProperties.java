@@ -0,0 +1,19 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled       time the stages of every request
+ * @param header        send the stages in the {@code Server-Timing} response header
+ * @param slowThreshold requests at least this slow are kept for {@code /actuator/slowrequests}
+ * @param slowCapacity  slow requests kept, oldest overwritten first
+ */
+@ConfigurationProperties(prefix = "jbank.request-timing")
+public record RequestTimingProperties(@DefaultValue("true") boolean enabled,
+                                      @DefaultValue("true") boolean header,
+                                      @DefaultValue("500ms") Duration slowThreshold,
+                                      @DefaultValue("256") int slowCapacity) {
+}
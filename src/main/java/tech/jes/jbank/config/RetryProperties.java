@@ -0,0 +1,21 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Retry policy for operations that lose a race on a wallet row.
+ *
+ * @param maxAttempts    attempts in total, including the first one
+ * @param initialBackoff upper bound of the wait before the first retry
+ * @param maxBackoff     cap on the upper bound as it grows
+ * @param multiplier     growth of the upper bound after every attempt
+ */
+@ConfigurationProperties(prefix = "jbank.retry")
+public record RetryProperties(@DefaultValue("4") int maxAttempts,
+                              @DefaultValue("10ms") Duration initialBackoff,
+                              @DefaultValue("200ms") Duration maxBackoff,
+                              @DefaultValue("2.0") double multiplier) {
+}
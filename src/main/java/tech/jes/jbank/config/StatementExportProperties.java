@@ -0,0 +1,15 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param chunkSize rows read per transaction; memory and transaction length are bounded by it, not by the history
+ * @param timeout   how long one export may take; other async requests keep the default timeout
+ */
+@ConfigurationProperties(prefix = "jbank.statement-export")
+public record StatementExportProperties(@DefaultValue("1000") int chunkSize,
+                                        @DefaultValue("30m") Duration timeout) {
+}
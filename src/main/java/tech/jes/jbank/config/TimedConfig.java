@@ -0,0 +1,35 @@
+package tech.jes.jbank.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Records the {@code @Timed} methods through Micrometer's {@link TimedAspect}, selected by a plain annotation
+ * pointcut. Spring Boot's {@code management.observations.annotations.enabled} registers the aspects as AspectJ
+ * pointcuts instead, which are matched against every method of every bean while the context starts.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TimedConfig {
+
+    @Bean
+    static Advisor timedAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        // the registry is only looked up on the first call, so creating the advisor early does not create it too
+        var aspect = SingletonSupplier.of(() -> new TimedAspect(meterRegistry.getObject()));
+
+        MethodInterceptor interceptor = invocation -> aspect.obtain()
+                .timedMethod(new MethodInvocationProceedingJoinPoint((ProxyMethodInvocation) invocation));
+
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, Timed.class, true), interceptor);
+    }
+}
@@ -0,0 +1,16 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxSize wallets kept in memory
+ * @param ttl     longest a snapshot is served after it was loaded or updated, bounding staleness
+ *                from changes made by other instances or outside the application
+ */
+@ConfigurationProperties(prefix = "jbank.wallet-cache")
+public record WalletCacheProperties(@DefaultValue("10000") long maxSize,
+                                    @DefaultValue("30s") Duration ttl) {
+}
@@ -0,0 +1,17 @@
+package tech.jes.jbank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled                  check new CPFs and e-mails against the filter before querying tb_wallets
+ * @param expectedWallets          wallets the filter is sized for; it grows to twice the count found at startup
+ * @param falsePositiveProbability target rate of lookups that find nothing because the filter said "maybe"
+ * @param rebuildBatchSize         wallets read per query while the filter is rebuilt
+ */
+@ConfigurationProperties(prefix = "jbank.wallet-filter")
+public record WalletFilterProperties(@DefaultValue("true") boolean enabled,
+                                     @DefaultValue("1000000") long expectedWallets,
+                                     @DefaultValue("0.01") double falsePositiveProbability,
+                                     @DefaultValue("10000") int rebuildBatchSize) {
+}
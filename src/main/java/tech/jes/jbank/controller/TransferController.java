@@ -4,9 +4,13 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import tech.jes.jbank.controller.dto.BatchTransferDto;
+import tech.jes.jbank.controller.dto.BatchTransferResultDto;
 import tech.jes.jbank.controller.dto.TransferMoneyDto;
+import tech.jes.jbank.service.IdempotencyService;
 import tech.jes.jbank.service.TransferService;
 
 @RestController
@@ -14,16 +18,30 @@ import tech.jes.jbank.service.TransferService;
 public class TransferController {
 
     private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
 
-    public TransferController(TransferService transferService) {
+    public TransferController(TransferService transferService,
+                              IdempotencyService idempotencyService) {
         this.transferService = transferService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
-    public ResponseEntity<Void> transfer(@RequestBody @Valid TransferMoneyDto dto) {
+    public ResponseEntity<Void> transfer(@RequestBody @Valid TransferMoneyDto dto,
+                                         @RequestHeader(name = "Idempotency-Key", required = false)
+                                         String idempotencyKey) {
 
-        transferService.transferMoney(dto);
+        idempotencyService.execute(idempotencyKey, "transferMoney", dto,
+                () -> transferService.transferMoney(dto));
 
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransferResultDto> transferBatch(@RequestBody @Valid BatchTransferDto dto) {
+
+        var result = transferService.transferMoneyBatch(dto);
+
+        return ResponseEntity.ok(result);
+    }
 }
@@ -2,21 +2,41 @@ package tech.jes.jbank.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tech.jes.jbank.config.StatementExportProperties;
+import tech.jes.jbank.controller.dto.BalanceAtDto;
+import tech.jes.jbank.controller.dto.BalanceSlotsDto;
 import tech.jes.jbank.controller.dto.CreateWalletDto;
 import tech.jes.jbank.controller.dto.DepositMoneyDto;
 import tech.jes.jbank.controller.dto.StatementDto;
+import tech.jes.jbank.controller.dto.StatementExportFormat;
+import tech.jes.jbank.controller.dto.SummaryDto;
+import tech.jes.jbank.service.BalanceHistoryService;
+import tech.jes.jbank.service.IdempotencyService;
+import tech.jes.jbank.service.MonthlySummaryService;
+import tech.jes.jbank.service.StatementExportService;
 import tech.jes.jbank.service.WalletService;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -24,9 +44,24 @@ import java.util.UUID;
 public class WalletController {
 
     private final WalletService walletService;
-
-    public WalletController(WalletService walletService) {
+    private final IdempotencyService idempotencyService;
+    private final StatementExportService statementExportService;
+    private final BalanceHistoryService balanceHistoryService;
+    private final MonthlySummaryService monthlySummaryService;
+    private final StatementExportProperties statementExportProperties;
+
+    public WalletController(WalletService walletService,
+                            IdempotencyService idempotencyService,
+                            StatementExportService statementExportService,
+                            BalanceHistoryService balanceHistoryService,
+                            MonthlySummaryService monthlySummaryService,
+                            StatementExportProperties statementExportProperties) {
         this.walletService = walletService;
+        this.idempotencyService = idempotencyService;
+        this.statementExportService = statementExportService;
+        this.balanceHistoryService = balanceHistoryService;
+        this.monthlySummaryService = monthlySummaryService;
+        this.statementExportProperties = statementExportProperties;
     }
 
     @PostMapping
@@ -51,26 +86,81 @@ public class WalletController {
     @PostMapping("{walletId}/deposits")
     public ResponseEntity<Void> depositMoney(@PathVariable("walletId") UUID walletId,
                                              @RequestBody @Valid DepositMoneyDto dto,
+                                             @RequestHeader(name = "Idempotency-Key", required = false)
+                                             String idempotencyKey,
                                              HttpServletRequest servletRequest) {
 
-        walletService.depositMoney(
-                walletId,
-                dto,
-                servletRequest.getAttribute("x-user-ip").toString()
-        );
+        idempotencyService.execute(idempotencyKey, "depositMoney", List.of(walletId, dto),
+                () -> walletService.depositMoney(
+                        walletId,
+                        dto,
+                        servletRequest.getAttribute("x-user-ip").toString()
+                ));
 
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("{walletId}/balance-slots")
+    public ResponseEntity<Void> changeBalanceSlots(@PathVariable("walletId") UUID walletId,
+                                                   @RequestBody @Valid BalanceSlotsDto dto) {
+
+        walletService.changeBalanceSlots(walletId, dto);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{walletId}/balance")
+    public ResponseEntity<BalanceAtDto> getBalance(@PathVariable("walletId") UUID walletId,
+                                                   @RequestParam(name = "at", required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+
+        return ResponseEntity.ok(balanceHistoryService.balanceAt(walletId, at));
+    }
+
+    @GetMapping("/{walletId}/summary")
+    public ResponseEntity<SummaryDto> getSummary(@PathVariable("walletId") UUID walletId,
+                                                 @RequestParam(name = "from", required = false)
+                                                 @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                 @RequestParam(name = "to", required = false)
+                                                 @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+
+        return ResponseEntity.ok(monthlySummaryService.summary(walletId, from, to));
+    }
+
     @GetMapping("/{walletId}/statements")
     public ResponseEntity<StatementDto> getStatements(@PathVariable("walletId") UUID walletId,
                                                       @RequestParam(name = "page", defaultValue = "0") Integer page,
-                                                      @RequestParam(name = "pageSize", defaultValue = "10") Integer pageSize) {
+                                                      @RequestParam(name = "pageSize", defaultValue = "10") Integer pageSize,
+                                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                                      @RequestParam(name = "includeTotal", defaultValue = "true") Boolean includeTotal) {
 
-        var statement = walletService.getStatements(walletId, page, pageSize);
+        var statement = walletService.getStatements(walletId, page, pageSize, cursor, includeTotal);
 
         return ResponseEntity.ok(statement);
 
     }
 
+    @GetMapping("/{walletId}/statements/export")
+    public ResponseEntity<StreamingResponseBody> exportStatements(@PathVariable("walletId") UUID walletId,
+                                                                  @RequestParam(name = "format", defaultValue = "ndjson") String formatName,
+                                                                  HttpServletRequest servletRequest) {
+
+        var format = StatementExportFormat.of(formatName);
+        var body = statementExportService.export(walletId, format);
+
+        // only the download gets the long timeout, set before the body starts async processing
+        WebAsyncUtils.getAsyncManager(servletRequest)
+                .getAsyncWebRequest()
+                .setTimeout(statementExportProperties.timeout().toMillis());
+
+        var disposition = ContentDisposition.attachment()
+                .filename("statements-" + walletId + "." + format.extension())
+                .build();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
 }
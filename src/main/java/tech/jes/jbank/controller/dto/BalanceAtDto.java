@@ -0,0 +1,11 @@
+package tech.jes.jbank.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record BalanceAtDto(UUID walletId,
+                           LocalDateTime at,
+                           BigDecimal balance,
+                           LocalDateTime snapshotAt) {
+}
@@ -0,0 +1,8 @@
+package tech.jes.jbank.controller.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record BalanceSlotsDto(@NotNull @Min(0) @Max(64) Integer slots) {
+}
@@ -0,0 +1,11 @@
+package tech.jes.jbank.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTransferDto(@NotEmpty @Size(max = 5000) List<@Valid @NotNull TransferMoneyDto> transfers) {
+}
@@ -0,0 +1,6 @@
+package tech.jes.jbank.controller.dto;
+
+public record BatchTransferItemDto(Integer index,
+                                   BatchTransferStatus status,
+                                   String reason) {
+}
@@ -0,0 +1,8 @@
+package tech.jes.jbank.controller.dto;
+
+import java.util.List;
+
+public record BatchTransferResultDto(Integer succeeded,
+                                     Integer failed,
+                                     List<BatchTransferItemDto> items) {
+}
@@ -0,0 +1,6 @@
+package tech.jes.jbank.controller.dto;
+
+public enum BatchTransferStatus {
+
+    SUCCEEDED, FAILED
+}
@@ -0,0 +1,11 @@
+package tech.jes.jbank.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record MonthlySummaryDto(YearMonth month,
+                                BigDecimal credits,
+                                long creditCount,
+                                BigDecimal debits,
+                                long debitCount) {
+}
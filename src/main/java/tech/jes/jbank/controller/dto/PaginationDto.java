@@ -3,5 +3,6 @@ package tech.jes.jbank.controller.dto;
 public record PaginationDto(Integer page,
                             Integer pageSize,
                             Long totalElements,
-                            Integer totalPages) {
+                            Integer totalPages,
+                            String nextCursor) {
 }
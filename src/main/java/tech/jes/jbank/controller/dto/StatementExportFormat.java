@@ -0,0 +1,34 @@
+package tech.jes.jbank.controller.dto;
+
+import tech.jes.jbank.exception.StatementExportFormatException;
+
+public enum StatementExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    StatementExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static StatementExportFormat of(String value) {
+        for (var format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new StatementExportFormatException("format must be one of ndjson, csv");
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
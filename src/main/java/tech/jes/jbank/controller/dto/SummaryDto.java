@@ -0,0 +1,16 @@
+package tech.jes.jbank.controller.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+public record SummaryDto(UUID walletId,
+                         YearMonth from,
+                         YearMonth to,
+                         BigDecimal credits,
+                         long creditCount,
+                         BigDecimal debits,
+                         long debitCount,
+                         List<MonthlySummaryDto> months) {
+}
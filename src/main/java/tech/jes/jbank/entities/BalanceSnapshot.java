@@ -0,0 +1,90 @@
+package tech.jes.jbank.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Balance of a wallet at {@code snapshotAt}, derived from its deposits and transfers up to that instant.
+ * <p>
+ * Snapshots are always new rows with an assigned key, so {@link Persistable#isNew()} tells Spring Data to
+ * persist them directly instead of merging, which would cost a select per row and break insert batching.
+ */
+@Entity
+@Table(name = "tb_balance_snapshots")
+@IdClass(BalanceSnapshotId.class)
+public class BalanceSnapshot implements Persistable<BalanceSnapshotId> {
+
+    @Id
+    @Column(name = "wallet_id")
+    private UUID walletId;
+
+    @Id
+    @Column(name = "snapshot_at")
+    private LocalDateTime snapshotAt;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+
+    @Transient
+    private boolean persisted;
+
+    public BalanceSnapshot() {
+    }
+
+    public BalanceSnapshot(UUID walletId, LocalDateTime snapshotAt, BigDecimal balance) {
+        this.walletId = walletId;
+        this.snapshotAt = snapshotAt;
+        this.balance = balance;
+    }
+
+    @Override
+    public BalanceSnapshotId getId() {
+        return new BalanceSnapshotId(walletId, snapshotAt);
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(UUID walletId) {
+        this.walletId = walletId;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    public void setSnapshotAt(LocalDateTime snapshotAt) {
+        this.snapshotAt = snapshotAt;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,40 @@
+package tech.jes.jbank.entities;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+public class BalanceSnapshotId implements Serializable {
+
+    private UUID walletId;
+    private LocalDateTime snapshotAt;
+
+    public BalanceSnapshotId() {
+    }
+
+    public BalanceSnapshotId(UUID walletId, LocalDateTime snapshotAt) {
+        this.walletId = walletId;
+        this.snapshotAt = snapshotAt;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BalanceSnapshotId that)) return false;
+        return Objects.equals(walletId, that.walletId) && Objects.equals(snapshotAt, that.snapshotAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(walletId, snapshotAt);
+    }
+}
@@ -2,9 +2,8 @@ package tech.jes.jbank.entities;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -14,12 +13,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tb_deposits")
+@Table(name = "tb_deposits", indexes = {
+        @Index(name = "idx_deposits_wallet_date_time", columnList = "wallet_id, deposit_date_time")
+})
 public class Deposit {
 
     @Id
     @Column(name = "deposit_id")
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID depositID;
 
     @ManyToOne
@@ -0,0 +1,119 @@
+package tech.jes.jbank.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import tech.jes.jbank.controller.dto.StatementOperation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_ledger_entries", indexes = {
+        @Index(name = "idx_ledger_wallet_date_time", columnList = "wallet_id, entry_date_time, entry_id"),
+        @Index(name = "idx_ledger_source", columnList = "source_id, operation", unique = true)
+})
+public class LedgerEntry {
+
+    public static final String TYPE_DEPOSIT = "deposit";
+    public static final String TYPE_TRANSFER = "transfer";
+
+    @Id
+    @Column(name = "entry_id")
+    @TimeOrderedUuid
+    private UUID entryId;
+
+    @Column(name = "wallet_id", nullable = false)
+    private UUID walletId;
+
+    @Column(name = "source_id", nullable = false)
+    private UUID sourceId;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private StatementOperation operation;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "counterparty_wallet_id")
+    private UUID counterpartyWalletId;
+
+    @Column(name = "entry_date_time", nullable = false)
+    private LocalDateTime entryDateTime;
+
+    public LedgerEntry() {
+    }
+
+    public UUID getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(UUID entryId) {
+        this.entryId = entryId;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(UUID walletId) {
+        this.walletId = walletId;
+    }
+
+    public UUID getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(UUID sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public StatementOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(StatementOperation operation) {
+        this.operation = operation;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public UUID getCounterpartyWalletId() {
+        return counterpartyWalletId;
+    }
+
+    public void setCounterpartyWalletId(UUID counterpartyWalletId) {
+        this.counterpartyWalletId = counterpartyWalletId;
+    }
+
+    public LocalDateTime getEntryDateTime() {
+        return entryDateTime;
+    }
+
+    public void setEntryDateTime(LocalDateTime entryDateTime) {
+        this.entryDateTime = entryDateTime;
+    }
+}
@@ -0,0 +1,117 @@
+package tech.jes.jbank.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Credits and debits of a wallet in the month starting at {@code month}, as sums and counts. Debits are positive.
+ * <p>
+ * Hot wallets split a month over several slots, so the month is the sum of its rows. Rows are only inserted
+ * whole by the rebuild; day-to-day changes are increments, so {@link Persistable#isNew()} skips the merge.
+ */
+@Entity
+@Table(name = "tb_monthly_summaries")
+@IdClass(MonthlySummaryId.class)
+public class MonthlySummary implements Persistable<MonthlySummaryId> {
+
+    @Id
+    @Column(name = "wallet_id")
+    private UUID walletId;
+
+    @Id
+    @Column(name = "summary_month")
+    private LocalDate month;
+
+    @Id
+    @Column(name = "slot")
+    private int slot;
+
+    @Column(name = "credits", nullable = false)
+    private BigDecimal credits;
+
+    @Column(name = "credit_count", nullable = false)
+    private long creditCount;
+
+    @Column(name = "debits", nullable = false)
+    private BigDecimal debits;
+
+    @Column(name = "debit_count", nullable = false)
+    private long debitCount;
+
+    @Transient
+    private boolean persisted;
+
+    public MonthlySummary() {
+    }
+
+    public MonthlySummary(UUID walletId,
+                          LocalDate month,
+                          int slot,
+                          BigDecimal credits,
+                          long creditCount,
+                          BigDecimal debits,
+                          long debitCount) {
+        this.walletId = walletId;
+        this.month = month;
+        this.slot = slot;
+        this.credits = credits;
+        this.creditCount = creditCount;
+        this.debits = debits;
+        this.debitCount = debitCount;
+    }
+
+    @Override
+    public MonthlySummaryId getId() {
+        return new MonthlySummaryId(walletId, month, slot);
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public BigDecimal getCredits() {
+        return credits;
+    }
+
+    public long getCreditCount() {
+        return creditCount;
+    }
+
+    public BigDecimal getDebits() {
+        return debits;
+    }
+
+    public long getDebitCount() {
+        return debitCount;
+    }
+}
@@ -0,0 +1,46 @@
+package tech.jes.jbank.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+public class MonthlySummaryId implements Serializable {
+
+    private UUID walletId;
+    private LocalDate month;
+    private int slot;
+
+    public MonthlySummaryId() {
+    }
+
+    public MonthlySummaryId(UUID walletId, LocalDate month, int slot) {
+        this.walletId = walletId;
+        this.month = month;
+        this.slot = slot;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MonthlySummaryId that)) return false;
+        return slot == that.slot && Objects.equals(walletId, that.walletId) && Objects.equals(month, that.month);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(walletId, month, slot);
+    }
+}
@@ -0,0 +1,118 @@
+package tech.jes.jbank.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A deposit or transfer waiting to be published, written in the transaction that moved the money.
+ * <p>
+ * Keys are always UUIDv7, whatever {@code jbank.ids.time-ordered} says, so reading the primary key in order
+ * returns the oldest events first. Rows are only ever inserted and deleted, so {@link Persistable#isNew()}
+ * keeps Spring Data from merging them.
+ */
+@Entity
+@Table(name = "tb_outbox_events")
+public class OutboxEvent implements Persistable<UUID> {
+
+    public static final String TYPE_DEPOSIT = "deposit";
+    public static final String TYPE_TRANSFER = "transfer";
+
+    private static final TimeOrderedUuids EVENT_IDS = new TimeOrderedUuids();
+
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Column(name = "event_type", nullable = false, length = 16)
+    private String eventType;
+
+    @Column(name = "source_id", nullable = false)
+    private UUID sourceId;
+
+    @Column(name = "wallet_id", nullable = false)
+    private UUID walletId;
+
+    @Column(name = "counterparty_wallet_id")
+    private UUID counterpartyWalletId;
+
+    @Column(name = "amount", nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Transient
+    private boolean persisted;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventType,
+                       UUID sourceId,
+                       UUID walletId,
+                       UUID counterpartyWalletId,
+                       BigDecimal amount,
+                       LocalDateTime occurredAt) {
+        this.eventId = EVENT_IDS.next();
+        this.eventType = eventType;
+        this.sourceId = sourceId;
+        this.walletId = walletId;
+        this.counterpartyWalletId = counterpartyWalletId;
+        this.amount = amount;
+        this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public UUID getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public UUID getSourceId() {
+        return sourceId;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public UUID getCounterpartyWalletId() {
+        return counterpartyWalletId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
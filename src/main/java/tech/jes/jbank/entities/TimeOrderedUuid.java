@@ -0,0 +1,18 @@
+package tech.jes.jbank.entities;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the id with {@link TimeOrderedUuidGenerator}: a UUIDv7 when {@code jbank.ids.time-ordered=true},
+ * a random UUIDv4 (the same as {@code GenerationType.UUID}) otherwise.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
@@ -0,0 +1,47 @@
+package tech.jes.jbank.entities;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.UUID;
+
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    /**
+     * Hibernate setting read when the session factory is built; {@code IdGenerationConfig} copies
+     * {@code jbank.ids.time-ordered} into it.
+     */
+    public static final String TIME_ORDERED_SETTING = "jbank.ids.time-ordered";
+
+    // one sequence for every entity, so ids stay increasing across tables too
+    private static final TimeOrderedUuids TIME_ORDERED_UUIDS = new TimeOrderedUuids();
+
+    private final boolean timeOrdered;
+
+    public TimeOrderedUuidGenerator(TimeOrderedUuid config,
+                                    Member member,
+                                    CustomIdGeneratorCreationContext context) {
+        var settings = context.getServiceRegistry().requireService(ConfigurationService.class).getSettings();
+        this.timeOrdered = ConfigurationHelper.getBoolean(TIME_ORDERED_SETTING, settings, false);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session,
+                           Object owner,
+                           Object currentValue,
+                           EventType eventType) {
+        return timeOrdered ? TIME_ORDERED_UUIDS.next() : UUID.randomUUID();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
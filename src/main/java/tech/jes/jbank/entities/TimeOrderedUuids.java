@@ -0,0 +1,64 @@
+package tech.jes.jbank.entities;
+
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * UUIDv7 (RFC 9562): 48 bits of Unix epoch milliseconds, then a 12 bit counter in {@code rand_a},
+ * then 62 random bits. Ids from one generator are strictly increasing, also within the same millisecond,
+ * so rows keyed by them are appended to the end of the primary key index instead of landing on random pages.
+ * <p>
+ * When more than 4096 ids are asked for in one millisecond, or the clock goes back, the generator
+ * keeps counting past the current millisecond instead of repeating or going backwards.
+ */
+public final class TimeOrderedUuids {
+
+    /**
+     * The byte order MySQL stores in BINARY(16), which is what primary key indexes sort by and how
+     * {@code ORDER BY} on an id column returns rows. {@link UUID#compareTo} compares the halves as signed longs
+     * and disagrees with it whenever the high bits differ, so code that locks rows in id order must use this.
+     */
+    public static final Comparator<UUID> BYTE_ORDER = TimeOrderedUuids::compareBytes;
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RAND_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final LongSupplier clock;
+    // timestamp << 12 | counter of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public TimeOrderedUuids() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedUuids(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public UUID next() {
+        var now = clock.getAsLong() << COUNTER_BITS;
+        var stamp = last.updateAndGet(previous -> Math.max(previous + 1, now));
+
+        var timestamp = stamp >>> COUNTER_BITS;
+        var counter = stamp & ((1L << COUNTER_BITS) - 1);
+
+        var mostSignificant = (timestamp << 16) | VERSION | counter;
+        var leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RAND_B_MASK);
+
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    public static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static int compareBytes(UUID a, UUID b) {
+        var high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -2,9 +2,8 @@ package tech.jes.jbank.entities;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -14,11 +13,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tb_transfer")
+@Table(name = "tb_transfer", indexes = {
+        @Index(name = "idx_transfer_receiver_date_time", columnList = "wallet_receiver_id, transfer_date_time"),
+        @Index(name = "idx_transfer_sender_date_time", columnList = "wallet_sender_id, transfer_date_time")
+})
 public class Transfer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "transfer_id")
     private UUID transferId;
 
@@ -2,8 +2,6 @@ package tech.jes.jbank.entities;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
@@ -17,7 +15,7 @@ public class Wallet {
 
     @Id
     @Column(name = "wallet_id")
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID walletId;
 
     @Column(name = "cpf", unique = true)
@@ -32,6 +30,9 @@ public class Wallet {
     @Column(name = "balance")
     private BigDecimal balance;
 
+    @Column(name = "balance_slots", nullable = false)
+    private Integer balanceSlots = 0;
+
     @Version
     private Long version;
 
@@ -78,6 +79,14 @@ public class Wallet {
         this.balance = balance;
     }
 
+    public Integer getBalanceSlots() {
+        return balanceSlots;
+    }
+
+    public void setBalanceSlots(Integer balanceSlots) {
+        this.balanceSlots = balanceSlots;
+    }
+
     public Long getVersion() {
         return version;
     }
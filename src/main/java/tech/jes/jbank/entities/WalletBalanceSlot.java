@@ -0,0 +1,63 @@
+package tech.jes.jbank.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One share of the balance of a hot wallet. The wallet balance is the sum of its slots.
+ */
+@Entity
+@Table(name = "tb_wallet_balance_slots")
+@IdClass(WalletBalanceSlotId.class)
+public class WalletBalanceSlot {
+
+    @Id
+    @Column(name = "wallet_id")
+    private UUID walletId;
+
+    @Id
+    @Column(name = "slot")
+    private Integer slot;
+
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+
+    public WalletBalanceSlot() {
+    }
+
+    public WalletBalanceSlot(UUID walletId, Integer slot, BigDecimal balance) {
+        this.walletId = walletId;
+        this.slot = slot;
+        this.balance = balance;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public void setWalletId(UUID walletId) {
+        this.walletId = walletId;
+    }
+
+    public Integer getSlot() {
+        return slot;
+    }
+
+    public void setSlot(Integer slot) {
+        this.slot = slot;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+}
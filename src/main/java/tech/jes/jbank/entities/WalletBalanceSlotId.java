@@ -0,0 +1,39 @@
+package tech.jes.jbank.entities;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+public class WalletBalanceSlotId implements Serializable {
+
+    private UUID walletId;
+    private Integer slot;
+
+    public WalletBalanceSlotId() {
+    }
+
+    public WalletBalanceSlotId(UUID walletId, Integer slot) {
+        this.walletId = walletId;
+        this.slot = slot;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public Integer getSlot() {
+        return slot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WalletBalanceSlotId that)) return false;
+        return Objects.equals(walletId, that.walletId) && Objects.equals(slot, that.slot);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(walletId, slot);
+    }
+}
@@ -0,0 +1,24 @@
+package tech.jes.jbank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+public class BalanceQueryException extends JBankException {
+
+    private final String detail;
+
+    public BalanceQueryException(String detail) {
+        super(detail);
+        this.detail = detail;
+    }
+
+    @Override
+    public ProblemDetail toProblemDetail() {
+        var pd = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+
+        pd.setTitle("Invalid balance query");
+        pd.setDetail(detail);
+
+        return pd;
+    }
+}
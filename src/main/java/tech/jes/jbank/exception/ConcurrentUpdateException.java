@@ -0,0 +1,21 @@
+package tech.jes.jbank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+public class ConcurrentUpdateException extends JBankException {
+
+    public ConcurrentUpdateException(Throwable cause) {
+        super(cause);
+    }
+
+    @Override
+    public ProblemDetail toProblemDetail() {
+        var pd = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+
+        pd.setTitle("Concurrent update");
+        pd.setDetail("The wallet is being updated by other operations. Try again later");
+
+        return pd;
+    }
+}
@@ -0,0 +1,24 @@
+package tech.jes.jbank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+public class IdempotencyKeyInProgressException extends JBankException {
+
+    private final String detail;
+
+    public IdempotencyKeyInProgressException(String detail) {
+        super(detail);
+        this.detail = detail;
+    }
+
+    @Override
+    public ProblemDetail toProblemDetail() {
+        var pd = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+
+        pd.setTitle("Request in progress");
+        pd.setDetail(detail);
+
+        return pd;
+    }
+}
@@ -0,0 +1,24 @@
+package tech.jes.jbank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+public class IdempotencyKeyMismatchException extends JBankException {
+
+    private final String detail;
+
+    public IdempotencyKeyMismatchException(String detail) {
+        super(detail);
+        this.detail = detail;
+    }
+
+    @Override
+    public ProblemDetail toProblemDetail() {
+        var pd = ProblemDetail.forStatus(HttpStatus.UNPROCESSABLE_ENTITY);
+
+        pd.setTitle("Idempotency key reused");
+        pd.setDetail(detail);
+
+        return pd;
+    }
+}
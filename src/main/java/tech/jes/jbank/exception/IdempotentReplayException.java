@@ -0,0 +1,31 @@
+package tech.jes.jbank.exception;
+
+import org.springframework.http.ProblemDetail;
+
+/**
+ * Answers a retried request with the error its first attempt got, as stored with the idempotency key.
+ */
+public class IdempotentReplayException extends JBankException {
+
+    private final int status;
+    private final String title;
+    private final String detail;
+
+    public IdempotentReplayException(int status, String title, String detail) {
+        super(detail);
+        this.status = status;
+        this.title = title;
+        this.detail = detail;
+    }
+
+    @Override
+    public ProblemDetail toProblemDetail() {
+        var pd = ProblemDetail.forStatus(status);
+
+        pd.setTitle(title);
+        pd.setDetail(detail);
+        pd.setProperty("idempotent-replay", true);
+
+        return pd;
+    }
+}
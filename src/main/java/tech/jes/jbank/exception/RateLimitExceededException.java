@@ -0,0 +1,28 @@
+package tech.jes.jbank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+public class RateLimitExceededException extends JBankException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("rate limit exceeded");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public ProblemDetail toProblemDetail() {
+        var pd = ProblemDetail.forStatus(HttpStatus.TOO_MANY_REQUESTS);
+
+        pd.setTitle("Too many requests");
+        pd.setDetail("try again in " + retryAfterSeconds + " seconds");
+
+        return pd;
+    }
+}
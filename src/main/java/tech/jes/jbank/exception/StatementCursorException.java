@@ -0,0 +1,24 @@
+package tech.jes.jbank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+public class StatementCursorException extends JBankException {
+
+    private final String detail;
+
+    public StatementCursorException(String detail) {
+        super(detail);
+        this.detail = detail;
+    }
+
+    @Override
+    public ProblemDetail toProblemDetail() {
+        var pd = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+
+        pd.setTitle("Invalid statement cursor");
+        pd.setDetail(detail);
+
+        return pd;
+    }
+}
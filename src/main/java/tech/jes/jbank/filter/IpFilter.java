@@ -1,29 +1,190 @@
 package tech.jes.jbank.filter;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import tech.jes.jbank.config.RateLimitProperties;
+import tech.jes.jbank.exception.RateLimitExceededException;
+import tech.jes.jbank.timing.RequestTiming;
 
 import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Tags every request with the client address and enforces the {@code jbank.rate-limit.rules}: each rule keeps a
+ * {@link RateLimiter} bucket per client address or per wallet of the path, and a request over any of its rules is
+ * answered here with {@code 429} and {@code Retry-After}, before it reaches a controller or the connection pool.
+ * A rejected request takes no token from the rules it passed. Idle clients are forgotten every
+ * {@code jbank.rate-limit.eviction-interval}.
+ * <p>
+ * It also opens and closes the {@link RequestTiming} of every request, so filter time counts towards it.
+ * <p>
+ * Publishes {@code jbank.rate-limit.rejections} and the {@code jbank.rate-limit.clients} gauge, tagged by rule path.
+ */
 @Component
-public class IpFilter extends HttpFilter {
+public class IpFilter extends HttpFilter implements SchedulingConfigurer {
 
+    private static final long NANOS_PER_SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+    private final RequestTiming requestTiming;
+    private final List<Route> routes;
+
+    public IpFilter(RateLimitProperties rateLimitProperties,
+                    ObjectMapper objectMapper,
+                    RequestTiming requestTiming,
+                    MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.objectMapper = objectMapper;
+        this.requestTiming = requestTiming;
+        this.routes = rateLimitProperties.rules()
+                .stream()
+                .map(rule -> Route.of(rule, meterRegistry))
+                .toList();
+    }
 
     @Override
     protected void doFilter(HttpServletRequest request,
                             HttpServletResponse response,
                             FilterChain chain) throws IOException, ServletException {
 
+        var timedResponse = requestTiming.begin(response);
         var ipAddress = request.getRemoteAddr();
 
         request.setAttribute("x-user-ip", ipAddress);
         response.setHeader("x-user-ip", ipAddress);
 
-        chain.doFilter(request, response);
+        try {
+            if (rateLimitProperties.enabled() && !routes.isEmpty()) {
+                var wait = acquire(request, ipAddress);
+
+                if (wait > 0) {
+                    reject(request, timedResponse, wait);
+                    return;
+                }
+            }
+
+            chain.doFilter(request, timedResponse);
+        } finally {
+            requestTiming.end(request, timedResponse);
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::evictIdleClients, rateLimitProperties.evictionInterval());
+    }
+
+    private void evictIdleClients() {
+        var now = System.nanoTime();
+        routes.forEach(route -> route.limiter().evictIdle(now));
+    }
+
+    // longest wait among the matching rules, or 0 if the request passes all of them; a rejected request
+    // gives back the tokens it took from the other rules, so it only counts against the rules it failed
+    private long acquire(HttpServletRequest request, String ipAddress) {
+        var path = PathContainer.parsePath(request.getRequestURI());
+        var method = request.getMethod();
+        var now = System.nanoTime();
+        var wait = 0L;
+        var taken = new ArrayList<Map.Entry<Route, String>>(routes.size());
+
+        for (var route : routes) {
+            var key = route.keyOf(path, method, ipAddress);
+
+            if (key == null) {
+                continue;
+            }
+
+            var routeWait = route.limiter().acquire(key, now);
+            if (routeWait > 0) {
+                route.rejections().increment();
+                wait = Math.max(wait, routeWait);
+            } else {
+                taken.add(Map.entry(route, key));
+            }
+        }
+
+        if (wait > 0) {
+            taken.forEach(entry -> entry.getKey().limiter().release(entry.getValue()));
+        }
+        return wait;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        var retryAfter = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        var pd = new RateLimitExceededException(retryAfter).toProblemDetail();
+        pd.setInstance(URI.create(request.getRequestURI()));
+
+        response.setStatus(pd.getStatus());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), pd);
+    }
+
+    private record Route(PathPattern pattern,
+                         Set<String> methods,
+                         RateLimitProperties.Key key,
+                         RateLimiter limiter,
+                         Counter rejections) {
+
+        private static final String WALLET_VARIABLE = "walletId";
+
+        static Route of(RateLimitProperties.Rule rule, MeterRegistry meterRegistry) {
+            var limiter = new RateLimiter(
+                    rule.permits(),
+                    rule.period().toNanos(),
+                    rule.burst() == null ? rule.permits() : rule.burst()
+            );
+            Gauge.builder("jbank.rate-limit.clients", limiter, RateLimiter::size)
+                    .tag("rule", rule.path())
+                    .register(meterRegistry);
+
+            return new Route(
+                    PathPatternParser.defaultInstance.parse(rule.path()),
+                    rule.methods().stream().map(String::toUpperCase).collect(Collectors.toUnmodifiableSet()),
+                    rule.key(),
+                    limiter,
+                    meterRegistry.counter("jbank.rate-limit.rejections", "rule", rule.path())
+            );
+        }
+
+        /**
+         * @return the bucket this request draws from, or {@code null} if the rule does not apply to it
+         */
+        String keyOf(PathContainer path, String method, String ipAddress) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return null;
+            }
+
+            if (key == RateLimitProperties.Key.IP) {
+                return pattern.matches(path) ? ipAddress : null;
+            }
+
+            var match = pattern.matchAndExtract(path);
+            return match == null ? null : match.getUriVariables().get(WALLET_VARIABLE);
+        }
     }
 }
@@ -0,0 +1,84 @@
+package tech.jes.jbank.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per key, kept as the generic cell rate algorithm (GCRA): each key stores only its theoretical
+ * arrival time (TAT), the instant its bucket will be full again. A request is allowed when moving the TAT forward
+ * by one emission interval keeps it within {@code burst} intervals of now, which is the same as taking one token
+ * from a bucket of {@code burst} tokens refilled at {@code permits} per {@code period}.
+ * <p>
+ * The check is one map lookup and a CAS on the key's own counter, with no lock shared between keys.
+ * Keys whose bucket is full again carry no state and are dropped by {@link #evictIdle(long)}.
+ */
+public class RateLimiter {
+
+    private final long emissionInterval;
+    private final long tolerance;
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+    /**
+     * @param permits     requests refilled per period
+     * @param periodNanos length of the period
+     * @param burst       requests allowed at once from an idle key
+     */
+    public RateLimiter(long permits, long periodNanos, long burst) {
+        if (permits <= 0 || periodNanos <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permits, period and burst must be positive");
+        }
+        this.emissionInterval = Math.max(1, periodNanos / permits);
+        this.tolerance = emissionInterval * burst;
+    }
+
+    /**
+     * Takes one token from {@code key}'s bucket.
+     *
+     * @return {@code 0} if allowed, otherwise the nanoseconds until the next token
+     */
+    public long acquire(String key, long nowNanos) {
+        var arrival = arrivals.get(key);
+
+        if (arrival == null) {
+            arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        while (true) {
+            var tat = arrival.get();
+            var next = Math.max(tat - nowNanos, 0) + nowNanos + emissionInterval;
+            var wait = next - nowNanos - tolerance;
+
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token {@link #acquire(String, long)} took, for a request rejected by another limiter.
+     */
+    public void release(String key) {
+        var arrival = arrivals.get(key);
+
+        if (arrival != null) {
+            arrival.addAndGet(-emissionInterval);
+        }
+    }
+
+    /**
+     * Drops the keys whose bucket has refilled by {@code nowNanos}. A key refilled and used again during
+     * the sweep may lose its state, which only ever lets it through, never blocks it.
+     */
+    public int evictIdle(long nowNanos) {
+        var before = arrivals.size();
+        arrivals.values().removeIf(arrival -> arrival.get() - nowNanos <= 0);
+        return before - arrivals.size();
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+}
@@ -2,22 +2,33 @@ package tech.jes.jbank.interceptors;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
+import tech.jes.jbank.audit.AuditEvent;
+import tech.jes.jbank.audit.AuditPipeline;
+import tech.jes.jbank.timing.RequestTiming;
+
+import java.time.Instant;
+import java.util.Objects;
 
 @Component
 public class AuditInterceptor implements HandlerInterceptor {
 
-    private final Logger logger = LoggerFactory.getLogger(AuditInterceptor.class);
+    private final AuditPipeline auditPipeline;
+    private final RequestTiming requestTiming;
+
+    public AuditInterceptor(AuditPipeline auditPipeline, RequestTiming requestTiming) {
+        this.auditPipeline = auditPipeline;
+        this.requestTiming = requestTiming;
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request,
                              HttpServletResponse response,
                              Object handler) throws Exception {
 
+        requestTiming.handlerStarted();
         return true;
     }
 
@@ -35,11 +46,12 @@ public class AuditInterceptor implements HandlerInterceptor {
                                 Object handler,
                                 Exception ex) throws Exception {
 
-        logger.info("Audit - Method: {}, Url: {}, StatusCode: {}, IpAddress: {}",
+        auditPipeline.publish(new AuditEvent(
+                Instant.now(),
                 request.getMethod(),
                 request.getRequestURI(),
                 response.getStatus(),
-                request.getAttribute("x-user-ip")
-                );
+                Objects.toString(request.getAttribute("x-user-ip"), null)
+        ));
     }
 }
@@ -0,0 +1,77 @@
+package tech.jes.jbank.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.OutboxProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends one JSON object per line to {@code outbox.ndjson}. With {@code jbank.outbox.file.fsync}
+ * each batch is forced to disk before it is acknowledged, so a crash cannot lose events already deleted
+ * from the outbox.
+ */
+@Component
+@ConditionalOnProperty(prefix = "jbank.outbox", name = "sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private static final String CURRENT_FILE = "outbox.ndjson";
+    private static final byte NEW_LINE = '\n';
+
+    private final OutboxProperties.File properties;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel channel;
+    private OutputStream out;
+
+    public FileOutboxSink(OutboxProperties outboxProperties, ObjectMapper objectMapper) {
+        this.properties = outboxProperties.file();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<LedgerEvent> events) throws IOException {
+        if (out == null) {
+            open();
+        }
+
+        var lines = new ByteArrayOutputStream(events.size() * 256);
+        for (var event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write(NEW_LINE);
+        }
+        lines.writeTo(out);
+        out.flush();
+
+        if (properties.fsync()) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            channel = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(properties.directory());
+        channel = FileChannel.open(properties.directory().resolve(CURRENT_FILE),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        );
+        out = Channels.newOutputStream(channel);
+    }
+}
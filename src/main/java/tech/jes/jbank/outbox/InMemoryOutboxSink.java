@@ -0,0 +1,38 @@
+package tech.jes.jbank.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.OutboxProperties;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Keeps the most recent {@code jbank.outbox.memory.capacity} events, for local runs and benchmarks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "jbank.outbox", name = "sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final ArrayDeque<LedgerEvent> events;
+
+    public InMemoryOutboxSink(OutboxProperties outboxProperties) {
+        this.capacity = outboxProperties.memory().capacity();
+        this.events = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<LedgerEvent> batch) {
+        for (var event : batch) {
+            if (events.size() == capacity) {
+                events.pollFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<LedgerEvent> events() {
+        return List.copyOf(events);
+    }
+}
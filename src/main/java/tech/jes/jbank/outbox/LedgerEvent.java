@@ -0,0 +1,32 @@
+package tech.jes.jbank.outbox;
+
+import tech.jes.jbank.entities.OutboxEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What the sinks publish for a deposit or transfer. {@code eventId} is stable across redeliveries,
+ * so consumers can drop duplicates.
+ */
+public record LedgerEvent(UUID eventId,
+                          String type,
+                          UUID sourceId,
+                          UUID walletId,
+                          UUID counterpartyWalletId,
+                          BigDecimal amount,
+                          LocalDateTime occurredAt) {
+
+    static LedgerEvent of(OutboxEvent event) {
+        return new LedgerEvent(
+                event.getEventId(),
+                event.getEventType(),
+                event.getSourceId(),
+                event.getWalletId(),
+                event.getCounterpartyWalletId(),
+                event.getAmount(),
+                event.getOccurredAt()
+        );
+    }
+}
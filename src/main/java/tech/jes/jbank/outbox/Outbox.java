@@ -0,0 +1,71 @@
+package tech.jes.jbank.outbox;
+
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.OutboxProperties;
+import tech.jes.jbank.entities.Deposit;
+import tech.jes.jbank.entities.OutboxEvent;
+import tech.jes.jbank.entities.Transfer;
+import tech.jes.jbank.repository.OutboxEventRepository;
+
+import java.util.List;
+
+/**
+ * Writes one outbox row per deposit or transfer. Callers must run inside the transaction that moves
+ * the money, so an event exists if and only if the money moved; {@link OutboxPublisher} delivers it later.
+ */
+@Component
+public class Outbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties outboxProperties;
+
+    public Outbox(OutboxEventRepository outboxEventRepository, OutboxProperties outboxProperties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxProperties = outboxProperties;
+    }
+
+    public void recordDeposit(Deposit deposit) {
+        if (!outboxProperties.enabled()) {
+            return;
+        }
+
+        outboxEventRepository.save(new OutboxEvent(
+                OutboxEvent.TYPE_DEPOSIT,
+                deposit.getDepositID(),
+                deposit.getWallet().getWalletId(),
+                null,
+                deposit.getDepositValue(),
+                deposit.getDepositDatetime()
+        ));
+    }
+
+    public void recordTransfer(Transfer transfer) {
+        if (!outboxProperties.enabled()) {
+            return;
+        }
+
+        outboxEventRepository.save(event(transfer));
+    }
+
+    public void recordTransfers(List<Transfer> transfers) {
+        if (!outboxProperties.enabled()) {
+            return;
+        }
+
+        outboxEventRepository.saveAll(transfers.stream()
+                .map(Outbox::event)
+                .toList());
+    }
+
+    // one row per transfer: the receiver is the wallet, the sender the counterparty
+    private static OutboxEvent event(Transfer transfer) {
+        return new OutboxEvent(
+                OutboxEvent.TYPE_TRANSFER,
+                transfer.getTransferId(),
+                transfer.getReceiver().getWalletId(),
+                transfer.getSender().getWalletId(),
+                transfer.getTransferValue(),
+                transfer.getTransferDateTime()
+        );
+    }
+}
@@ -0,0 +1,179 @@
+package tech.jes.jbank.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jes.jbank.config.OutboxProperties;
+import tech.jes.jbank.entities.OutboxEvent;
+import tech.jes.jbank.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers the outbox from a single background thread. Each round locks the oldest {@code batchSize}
+ * events, hands them to the {@link OutboxSink} and deletes them in one statement, all in one transaction:
+ * if the sink fails, the transaction rolls back and the same events are retried after {@code retryInterval}.
+ * A crash between the sink and the commit redelivers the batch, so delivery is at-least-once.
+ * <p>
+ * Publishes {@code jbank.outbox.events} tagged by outcome and the {@code jbank.outbox.lag} timer,
+ * from the money movement to its publication.
+ */
+@Component
+public class OutboxPublisher implements SmartLifecycle {
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Logger logger = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private Thread publisher;
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository,
+                           OutboxSink outboxSink,
+                           OutboxProperties outboxProperties,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.outboxProperties = outboxProperties;
+        this.transactionTemplate = transactionTemplate;
+
+        this.published = meterRegistry.counter("jbank.outbox.events", "outcome", "published");
+        this.failed = meterRegistry.counter("jbank.outbox.events", "outcome", "failed");
+        this.lag = meterRegistry.timer("jbank.outbox.lag");
+    }
+
+    /**
+     * Publishes one batch on the calling thread.
+     *
+     * @return events published, or {@code -1} if the sink failed
+     */
+    public int publishBatch() {
+        var batchSize = outboxProperties.batchSize();
+
+        try {
+            var count = transactionTemplate.execute(status -> {
+                var events = outboxEventRepository.lockOldest(Limit.of(batchSize));
+
+                if (events.isEmpty()) {
+                    return 0;
+                }
+
+                try {
+                    outboxSink.publish(events.stream().map(LedgerEvent::of).toList());
+                } catch (Exception e) {
+                    throw new OutboxSinkException(events.size(), e);
+                }
+                outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getEventId).toList());
+
+                recordLag(events.getFirst());
+                return events.size();
+            });
+
+            published.increment(count);
+            return count;
+        } catch (OutboxSinkException e) {
+            failed.increment(e.events);
+            logger.error("Outbox batch not published - Events: {}", e.events, e.getCause());
+            return -1;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!outboxProperties.publish()) {
+            return;
+        }
+
+        running = true;
+        publisher = Thread.ofPlatform()
+                .name("outbox-publisher")
+                .daemon()
+                .start(this::publishLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        if (publisher == null) {
+            return;
+        }
+        LockSupport.unpark(publisher);
+
+        try {
+            if (!publisher.join(STOP_TIMEOUT)) {
+                logger.warn("Outbox publisher did not stop within {}", STOP_TIMEOUT);
+            }
+            outboxSink.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Outbox sink failed to close", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void publishLoop() {
+        while (running) {
+            int count;
+            try {
+                count = publishBatch();
+            } catch (RuntimeException e) {
+                logger.error("Outbox publisher failed to read the outbox", e);
+                count = -1;
+            }
+
+            if (count < 0) {
+                LockSupport.parkNanos(outboxProperties.retryInterval().toNanos());
+            } else if (count < outboxProperties.batchSize()) {
+                LockSupport.parkNanos(outboxProperties.pollInterval().toNanos());
+            }
+        }
+    }
+
+    // the oldest event of the batch waited the longest, so this is how far behind the publisher is
+    private void recordLag(OutboxEvent oldest) {
+        var waited = Duration.between(oldest.getOccurredAt(), LocalDateTime.now());
+
+        if (!waited.isNegative()) {
+            lag.record(waited);
+        }
+    }
+
+    private static class OutboxSinkException extends RuntimeException {
+
+        private final int events;
+
+        OutboxSinkException(int events, Throwable cause) {
+            super(cause);
+            this.events = events;
+        }
+    }
+}
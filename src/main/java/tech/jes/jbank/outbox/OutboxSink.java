@@ -0,0 +1,17 @@
+package tech.jes.jbank.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the ledger events. Only ever called from the outbox publisher thread.
+ * <p>
+ * Returning normally means every event of the batch was delivered; the batch is then deleted
+ * from the outbox. Throwing keeps the whole batch for a later attempt, so a sink may see an event more than once.
+ */
+public interface OutboxSink {
+
+    void publish(List<LedgerEvent> events) throws Exception;
+
+    default void close() throws Exception {
+    }
+}
@@ -0,0 +1,47 @@
+package tech.jes.jbank.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import tech.jes.jbank.entities.BalanceSnapshot;
+import tech.jes.jbank.entities.BalanceSnapshotId;
+import tech.jes.jbank.repository.dto.BalanceMovementView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshotId> {
+
+    // every sum is bounded by the latest snapshot, so it only reads rows written after it
+    String JPQL_MOVEMENTS = """
+            SELECT new tech.jes.jbank.repository.dto.BalanceMovementView(
+            	w.walletId,
+            	s.snapshotAt,
+            	s.balance,
+            	(SELECT COALESCE(SUM(d.depositValue), 0) FROM Deposit d
+            		WHERE d.wallet.walletId = w.walletId
+            			AND (s.snapshotAt IS NULL OR d.depositDatetime > s.snapshotAt)
+            			AND d.depositDatetime <= :at),
+            	(SELECT COALESCE(SUM(t.transferValue), 0) FROM Transfer t
+            		WHERE t.receiver.walletId = w.walletId
+            			AND (s.snapshotAt IS NULL OR t.transferDateTime > s.snapshotAt)
+            			AND t.transferDateTime <= :at),
+            	(SELECT COALESCE(SUM(t.transferValue), 0) FROM Transfer t
+            		WHERE t.sender.walletId = w.walletId
+            			AND (s.snapshotAt IS NULL OR t.transferDateTime > s.snapshotAt)
+            			AND t.transferDateTime <= :at)
+            )
+            FROM Wallet w
+            LEFT JOIN BalanceSnapshot s ON s.walletId = w.walletId
+            	AND s.snapshotAt = (SELECT MAX(s2.snapshotAt) FROM BalanceSnapshot s2
+            		WHERE s2.walletId = w.walletId AND s2.snapshotAt <= :at)
+            """;
+
+    @Query(JPQL_MOVEMENTS + "WHERE w.walletId = :walletId")
+    Optional<BalanceMovementView> findMovementsAt(UUID walletId, LocalDateTime at);
+
+    @Query(JPQL_MOVEMENTS + "WHERE w.walletId > :after ORDER BY w.walletId")
+    List<BalanceMovementView> findMovementsAtAfter(LocalDateTime at, UUID after, Limit limit);
+}
@@ -0,0 +1,80 @@
+package tech.jes.jbank.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jes.jbank.entities.IdempotencyKey;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // a plain INSERT, unlike save(), fails on a key another request already claimed
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO tb_idempotency_keys (idempotency_key, fingerprint, status, created_at)
+            VALUES (:key, :fingerprint, 'IN_PROGRESS', :createdAt)
+            """, nativeQuery = true)
+    int claim(String key, String fingerprint, LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k
+            SET k.status = tech.jes.jbank.entities.IdempotencyKey.Status.COMPLETED,
+            	k.responseStatus = :responseStatus,
+            	k.problemTitle = :problemTitle,
+            	k.problemDetail = :problemDetail,
+            	k.completedAt = :completedAt
+            WHERE k.key = :key AND k.status = tech.jes.jbank.entities.IdempotencyKey.Status.IN_PROGRESS
+            """)
+    int complete(String key,
+                 int responseStatus,
+                 String problemTitle,
+                 String problemDetail,
+                 LocalDateTime completedAt);
+
+    // joins the transaction that moves the money, so the keys complete if and only if it commits
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k
+            SET k.status = tech.jes.jbank.entities.IdempotencyKey.Status.COMPLETED,
+            	k.responseStatus = 200,
+            	k.completedAt = :completedAt
+            WHERE k.key IN :keys AND k.status = tech.jes.jbank.entities.IdempotencyKey.Status.IN_PROGRESS
+            """)
+    int completeAll(Collection<String> keys, LocalDateTime completedAt);
+
+    // a scalar, so it is read from the row even when the entity is already in the persistence context
+    @Query("SELECT k.status FROM IdempotencyKey k WHERE k.key = :key")
+    Optional<IdempotencyKey.Status> findStatus(String key);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k
+            SET k.createdAt = :claimedAt
+            WHERE k.key = :key
+            	AND k.status = tech.jes.jbank.entities.IdempotencyKey.Status.IN_PROGRESS
+            	AND k.createdAt < :staleBefore
+            """)
+    int takeOver(String key, LocalDateTime claimedAt, LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyKey k
+            WHERE k.key = :key AND k.status = tech.jes.jbank.entities.IdempotencyKey.Status.IN_PROGRESS
+            """)
+    int release(String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
@@ -0,0 +1,81 @@
+package tech.jes.jbank.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jes.jbank.entities.LedgerEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    String SQL_BACKFILL_DEPOSITS = """
+            INSERT IGNORE INTO tb_ledger_entries
+            	(entry_id, wallet_id, source_id, type, operation, amount, counterparty_wallet_id, entry_date_time)
+            SELECT
+            	UUID_TO_BIN(UUID()), d.wallet_id, d.deposit_id, 'deposit', 'CREDIT', d.deposit_value, NULL, d.deposit_date_time
+            FROM
+            	tb_deposits d
+            WHERE NOT EXISTS (SELECT 1 FROM tb_ledger_entries l WHERE l.source_id = d.deposit_id AND l.operation = 'CREDIT')
+            LIMIT ?1
+            """;
+    String SQL_BACKFILL_TRANSFER_CREDITS = """
+            INSERT IGNORE INTO tb_ledger_entries
+            	(entry_id, wallet_id, source_id, type, operation, amount, counterparty_wallet_id, entry_date_time)
+            SELECT
+            	UUID_TO_BIN(UUID()), t.wallet_receiver_id, t.transfer_id, 'transfer', 'CREDIT', t.transfer_value, t.wallet_sender_id, t.transfer_date_time
+            FROM
+            	tb_transfer t
+            WHERE NOT EXISTS (SELECT 1 FROM tb_ledger_entries l WHERE l.source_id = t.transfer_id AND l.operation = 'CREDIT')
+            LIMIT ?1
+            """;
+    String SQL_BACKFILL_TRANSFER_DEBITS = """
+            INSERT IGNORE INTO tb_ledger_entries
+            	(entry_id, wallet_id, source_id, type, operation, amount, counterparty_wallet_id, entry_date_time)
+            SELECT
+            	UUID_TO_BIN(UUID()), t.wallet_sender_id, t.transfer_id, 'transfer', 'DEBIT', -t.transfer_value, t.wallet_receiver_id, t.transfer_date_time
+            FROM
+            	tb_transfer t
+            WHERE NOT EXISTS (SELECT 1 FROM tb_ledger_entries l WHERE l.source_id = t.transfer_id AND l.operation = 'DEBIT')
+            LIMIT ?1
+            """;
+
+    String JPQL_BEFORE = """
+            SELECT e FROM LedgerEntry e
+            WHERE e.walletId = :walletId
+            	AND (e.entryDateTime < :dateTime OR (e.entryDateTime = :dateTime AND e.entryId < :entryId))
+            ORDER BY e.entryDateTime DESC, e.entryId DESC
+            """;
+
+    Page<LedgerEntry> findByWalletId(UUID walletId, Pageable pageable);
+
+    @Query("SELECT e FROM LedgerEntry e WHERE e.walletId = :walletId")
+    Slice<LedgerEntry> findSliceByWalletId(UUID walletId, Pageable pageable);
+
+    @Query(JPQL_BEFORE)
+    List<LedgerEntry> findByWalletIdBefore(UUID walletId, LocalDateTime dateTime, UUID entryId, Limit limit);
+
+    long countByWalletId(UUID walletId);
+
+    @Transactional
+    @Modifying
+    @Query(value = SQL_BACKFILL_DEPOSITS, nativeQuery = true)
+    int backfillDeposits(int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = SQL_BACKFILL_TRANSFER_CREDITS, nativeQuery = true)
+    int backfillTransferCredits(int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = SQL_BACKFILL_TRANSFER_DEBITS, nativeQuery = true)
+    int backfillTransferDebits(int limit);
+}
@@ -0,0 +1,77 @@
+package tech.jes.jbank.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import tech.jes.jbank.entities.MonthlySummary;
+import tech.jes.jbank.entities.MonthlySummaryId;
+import tech.jes.jbank.repository.dto.MonthlyMovementView;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface MonthlySummaryRepository extends JpaRepository<MonthlySummary, MonthlySummaryId> {
+
+    @Query("""
+            SELECT s FROM MonthlySummary s
+            WHERE s.walletId = :walletId AND s.month BETWEEN :from AND :to
+            ORDER BY s.month
+            """)
+    List<MonthlySummary> findMonths(UUID walletId, LocalDate from, LocalDate to);
+
+    // INSERT ... ON DUPLICATE KEY UPDATE on MySQL
+    @Modifying
+    @Query("""
+            INSERT INTO MonthlySummary (walletId, month, slot, credits, creditCount, debits, debitCount)
+            VALUES (:walletId, :month, :slot, :credits, :creditCount, :debits, :debitCount)
+            ON CONFLICT (walletId, month, slot) DO UPDATE SET
+            	credits = credits + excluded.credits,
+            	creditCount = creditCount + excluded.creditCount,
+            	debits = debits + excluded.debits,
+            	debitCount = debitCount + excluded.debitCount
+            """)
+    int add(UUID walletId,
+            LocalDate month,
+            int slot,
+            BigDecimal credits,
+            long creditCount,
+            BigDecimal debits,
+            long debitCount);
+
+    @Query("SELECT w.walletId FROM Wallet w WHERE w.walletId > :after ORDER BY w.walletId")
+    List<UUID> findWalletIdsAfter(UUID after, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM MonthlySummary s WHERE s.walletId BETWEEN :first AND :last")
+    int deleteWallets(UUID first, UUID last);
+
+    @Query("""
+            SELECT new tech.jes.jbank.repository.dto.MonthlyMovementView(
+            	d.wallet.walletId, YEAR(d.depositDatetime), MONTH(d.depositDatetime), SUM(d.depositValue), COUNT(d))
+            FROM Deposit d
+            WHERE d.wallet.walletId BETWEEN :first AND :last
+            GROUP BY d.wallet.walletId, YEAR(d.depositDatetime), MONTH(d.depositDatetime)
+            """)
+    List<MonthlyMovementView> sumDeposits(UUID first, UUID last);
+
+    @Query("""
+            SELECT new tech.jes.jbank.repository.dto.MonthlyMovementView(
+            	t.receiver.walletId, YEAR(t.transferDateTime), MONTH(t.transferDateTime), SUM(t.transferValue), COUNT(t))
+            FROM Transfer t
+            WHERE t.receiver.walletId BETWEEN :first AND :last
+            GROUP BY t.receiver.walletId, YEAR(t.transferDateTime), MONTH(t.transferDateTime)
+            """)
+    List<MonthlyMovementView> sumTransfersReceived(UUID first, UUID last);
+
+    @Query("""
+            SELECT new tech.jes.jbank.repository.dto.MonthlyMovementView(
+            	t.sender.walletId, YEAR(t.transferDateTime), MONTH(t.transferDateTime), SUM(t.transferValue), COUNT(t))
+            FROM Transfer t
+            WHERE t.sender.walletId BETWEEN :first AND :last
+            GROUP BY t.sender.walletId, YEAR(t.transferDateTime), MONTH(t.transferDateTime)
+            """)
+    List<MonthlyMovementView> sumTransfersSent(UUID first, UUID last);
+}
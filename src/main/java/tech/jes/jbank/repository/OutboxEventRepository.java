@@ -0,0 +1,27 @@
+package tech.jes.jbank.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import tech.jes.jbank.entities.OutboxEvent;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Oldest events, locked until the end of the transaction. Rows already locked by another
+     * publisher are skipped ({@code FOR UPDATE SKIP LOCKED}), so instances share the backlog
+     * instead of waiting on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.eventId")
+    List<OutboxEvent> lockOldest(Limit limit);
+}
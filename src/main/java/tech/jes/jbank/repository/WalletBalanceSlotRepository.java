@@ -0,0 +1,53 @@
+package tech.jes.jbank.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import tech.jes.jbank.entities.WalletBalanceSlot;
+import tech.jes.jbank.entities.WalletBalanceSlotId;
+import tech.jes.jbank.repository.dto.SlotBalanceView;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface WalletBalanceSlotRepository extends JpaRepository<WalletBalanceSlot, WalletBalanceSlotId> {
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM WalletBalanceSlot s WHERE s.walletId = :walletId")
+    BigDecimal sumBalance(UUID walletId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WalletBalanceSlot s WHERE s.walletId = :walletId ORDER BY s.slot")
+    List<WalletBalanceSlot> lockSlots(UUID walletId);
+
+    /*
+     * Same lock as lockSlots, but returns the balances of the rows instead of managed entities,
+     * which keep their state from before the bulk credits and debits earlier in the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT new tech.jes.jbank.repository.dto.SlotBalanceView(s.slot, s.balance)
+            FROM WalletBalanceSlot s
+            WHERE s.walletId = :walletId
+            ORDER BY s.slot
+            """)
+    List<SlotBalanceView> lockBalances(UUID walletId);
+
+    @Modifying
+    @Query("""
+            UPDATE WalletBalanceSlot s
+            SET s.balance = s.balance + :value
+            WHERE s.walletId = :walletId AND s.slot = :slot
+            """)
+    int credit(UUID walletId, int slot, BigDecimal value);
+
+    @Modifying
+    @Query("""
+            UPDATE WalletBalanceSlot s
+            SET s.balance = s.balance - :value
+            WHERE s.walletId = :walletId AND s.slot = :slot AND s.balance >= :value
+            """)
+    int debit(UUID walletId, int slot, BigDecimal value);
+}
@@ -1,12 +1,22 @@
 package tech.jes.jbank.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import tech.jes.jbank.entities.Wallet;
 import tech.jes.jbank.repository.dto.StatementView;
+import tech.jes.jbank.repository.dto.WalletIdentityView;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,7 +25,7 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     String SQL_STATEMENT = """
             SELECT
             	BIN_TO_UUID(transfer_id) as statement_id,
-            	"transfer" as type,
+            	'transfer' as type,
             	transfer_value as  statement_value,
             	BIN_TO_UUID(wallet_receiver_id) as wallet_receiver,
             	BIN_TO_UUID(wallet_sender_id) as wallet_sender,
@@ -26,25 +36,120 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
             UNION ALL
             SELECT
             	BIN_TO_UUID(deposit_id) as statement_id,
-            	"deposit" as type,
+            	'deposit' as type,
             	deposit_value as statement_value,
             	BIN_TO_UUID(wallet_id) as wallet_receiver,
-            	"" as wallet_sender,
+            	'' as wallet_sender,
             	deposit_date_time as statement_date_time
             FROM
             	tb_deposits
             WHERE wallet_id = UUID_TO_BIN(?1)
             """;
-    String SQL_COUNT_STATEMENT = """
-            SELECT COUNT(*) FROM
-            (
-            "" + SQL_STATEMENT + ""
-            ) as total
+    String SQL_COUNT_STATEMENT = "SELECT COUNT(*) FROM (" + SQL_STATEMENT + ") as total";
+
+    /*
+     * Keyset variant of SQL_STATEMENT: every branch seeks past the (date time, id) cursor and
+     * stops after ?4 rows, so a page costs the same no matter how deep into the history it is.
+     * Transfers are split by direction so each branch can use its own wallet index.
+     */
+    String SQL_STATEMENT_BEFORE = """
+            (SELECT
+            	BIN_TO_UUID(transfer_id) as statement_id,
+            	'transfer' as type,
+            	transfer_value as statement_value,
+            	BIN_TO_UUID(wallet_receiver_id) as wallet_receiver,
+            	BIN_TO_UUID(wallet_sender_id) as wallet_sender,
+            	transfer_date_time as statement_date_time
+            FROM
+            	tb_transfer
+            WHERE wallet_receiver_id = UUID_TO_BIN(?1) AND wallet_sender_id <> UUID_TO_BIN(?1)
+            	AND (transfer_date_time < ?2 OR (transfer_date_time = ?2 AND transfer_id < UUID_TO_BIN(?3)))
+            ORDER BY transfer_date_time DESC, transfer_id DESC
+            LIMIT ?4)
+            UNION ALL
+            (SELECT
+            	BIN_TO_UUID(transfer_id) as statement_id,
+            	'transfer' as type,
+            	transfer_value as statement_value,
+            	BIN_TO_UUID(wallet_receiver_id) as wallet_receiver,
+            	BIN_TO_UUID(wallet_sender_id) as wallet_sender,
+            	transfer_date_time as statement_date_time
+            FROM
+            	tb_transfer
+            WHERE wallet_sender_id = UUID_TO_BIN(?1)
+            	AND (transfer_date_time < ?2 OR (transfer_date_time = ?2 AND transfer_id < UUID_TO_BIN(?3)))
+            ORDER BY transfer_date_time DESC, transfer_id DESC
+            LIMIT ?4)
+            UNION ALL
+            (SELECT
+            	BIN_TO_UUID(deposit_id) as statement_id,
+            	'deposit' as type,
+            	deposit_value as statement_value,
+            	BIN_TO_UUID(wallet_id) as wallet_receiver,
+            	'' as wallet_sender,
+            	deposit_date_time as statement_date_time
+            FROM
+            	tb_deposits
+            WHERE wallet_id = UUID_TO_BIN(?1)
+            	AND (deposit_date_time < ?2 OR (deposit_date_time = ?2 AND deposit_id < UUID_TO_BIN(?3)))
+            ORDER BY deposit_date_time DESC, deposit_id DESC
+            LIMIT ?4)
+            ORDER BY statement_date_time DESC, statement_id DESC
+            LIMIT ?4
             """;
 
     Optional<Wallet> findByCpfOrEmail(String cpf, String email);
 
+    @Query("""
+            SELECT new tech.jes.jbank.repository.dto.WalletIdentityView(w.walletId, w.cpf, w.email)
+            FROM Wallet w
+            WHERE w.walletId > :after
+            ORDER BY w.walletId
+            """)
+    List<WalletIdentityView> findIdentitiesAfter(UUID after, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Wallet> findByWalletIdInOrderByWalletId(Collection<UUID> walletIds);
+
+    // a scalar, so it reflects the locked row even when the wallet is already in the persistence context
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w.balanceSlots FROM Wallet w WHERE w.walletId = :walletId")
+    Optional<Integer> lockBalanceSlots(UUID walletId);
+
     @Query(value = SQL_STATEMENT, countQuery = SQL_COUNT_STATEMENT, nativeQuery = true)
     Page<StatementView> findStatements(String walletId, PageRequest pageRequest);
 
+    @Query(value = SQL_STATEMENT, nativeQuery = true)
+    Slice<StatementView> findStatementSlice(String walletId, PageRequest pageRequest);
+
+    @Query(value = SQL_STATEMENT_BEFORE, nativeQuery = true)
+    List<StatementView> findStatementsBefore(String walletId,
+                                             LocalDateTime dateTime,
+                                             String statementId,
+                                             int limit);
+
+
+    @Query(value = SQL_COUNT_STATEMENT, nativeQuery = true)
+    long countStatements(String walletId);
+
+    /*
+     * debit and credit only touch wallets whose balance lives on the wallet row;
+     * hot wallets are handled by WalletBalanceService against their balance slots.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Wallet w
+            SET w.balance = w.balance - :value, w.version = w.version + 1
+            WHERE w.walletId = :walletId AND w.balance >= :value AND w.balanceSlots = 0
+            """)
+    int debit(UUID walletId, BigDecimal value);
+
+    @Modifying
+    @Query("""
+            UPDATE Wallet w
+            SET w.balance = w.balance + :value, w.version = w.version + 1
+            WHERE w.walletId = :walletId AND w.balanceSlots = 0
+            """)
+    int credit(UUID walletId, BigDecimal value);
+
 }
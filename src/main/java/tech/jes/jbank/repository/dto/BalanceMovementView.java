@@ -0,0 +1,26 @@
+package tech.jes.jbank.repository.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The latest snapshot of a wallet up to some instant, plus what moved after it until that instant.
+ * {@code snapshotAt} and {@code snapshotBalance} are null when the wallet has no snapshot yet.
+ */
+public record BalanceMovementView(UUID walletId,
+                                  LocalDateTime snapshotAt,
+                                  BigDecimal snapshotBalance,
+                                  BigDecimal deposits,
+                                  BigDecimal received,
+                                  BigDecimal sent) {
+
+    public boolean hasMovements() {
+        return deposits.signum() != 0 || received.signum() != 0 || sent.signum() != 0;
+    }
+
+    public BigDecimal balance() {
+        var base = snapshotBalance == null ? BigDecimal.ZERO : snapshotBalance;
+        return base.add(deposits).add(received).subtract(sent);
+    }
+}
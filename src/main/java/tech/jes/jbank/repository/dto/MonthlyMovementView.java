@@ -0,0 +1,14 @@
+package tech.jes.jbank.repository.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Sum and count of one kind of movement of a wallet in a calendar month.
+ */
+public record MonthlyMovementView(UUID walletId,
+                                  Integer year,
+                                  Integer month,
+                                  BigDecimal total,
+                                  Long count) {
+}
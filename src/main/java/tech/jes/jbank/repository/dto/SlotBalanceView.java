@@ -0,0 +1,10 @@
+package tech.jes.jbank.repository.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of one slot of a hot wallet, as read from the row rather than from the persistence context.
+ */
+public record SlotBalanceView(Integer slot,
+                              BigDecimal balance) {
+}
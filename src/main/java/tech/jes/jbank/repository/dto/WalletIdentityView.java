@@ -0,0 +1,6 @@
+package tech.jes.jbank.repository.dto;
+
+import java.util.UUID;
+
+public record WalletIdentityView(UUID walletId, String cpf, String email) {
+}
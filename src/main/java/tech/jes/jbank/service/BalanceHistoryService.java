@@ -0,0 +1,124 @@
+package tech.jes.jbank.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jes.jbank.config.BalanceSnapshotProperties;
+import tech.jes.jbank.config.DataSourceRouting;
+import tech.jes.jbank.controller.dto.BalanceAtDto;
+import tech.jes.jbank.entities.BalanceSnapshot;
+import tech.jes.jbank.exception.BalanceQueryException;
+import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.repository.BalanceSnapshotRepository;
+import tech.jes.jbank.repository.dto.BalanceMovementView;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Answers "what was the balance of this wallet at T" from tb_balance_snapshots.
+ * <p>
+ * Balances are rebuilt from deposits and transfers rather than read from tb_wallets, so a snapshot and a
+ * query agree with the statement. A query starts from the latest snapshot at or before T and adds only what
+ * moved after it, so its cost depends on {@code jbank.balance-snapshot.interval}, not on the age of the wallet.
+ */
+@Service
+public class BalanceHistoryService implements SchedulingConfigurer {
+
+    private final Logger logger = LoggerFactory.getLogger(BalanceHistoryService.class);
+
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final BalanceSnapshotProperties balanceSnapshotProperties;
+    private final ReadYourWrites readYourWrites;
+
+    public BalanceHistoryService(BalanceSnapshotRepository balanceSnapshotRepository,
+                                 BalanceSnapshotProperties balanceSnapshotProperties,
+                                 ReadYourWrites readYourWrites) {
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.balanceSnapshotProperties = balanceSnapshotProperties;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Transactional(readOnly = true)
+    public BalanceAtDto balanceAt(UUID walletId, LocalDateTime at) {
+
+        var now = LocalDateTime.now();
+        if (at == null) {
+            at = now;
+        } else if (at.isAfter(now)) {
+            throw new BalanceQueryException("at must not be in the future");
+        }
+
+        var instant = at;
+        var movements = readYourWrites.read(walletId, () -> balanceSnapshotRepository.findMovementsAt(walletId, instant))
+                .orElseThrow(() -> new WalletNotFoundException("there is no wallet with this id"));
+
+        return new BalanceAtDto(walletId, at, movements.balance(), movements.snapshotAt());
+    }
+
+    // only the instance with jbank.balance-snapshot.enabled schedules the job, first one interval after startup
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (balanceSnapshotProperties.enabled()) {
+            var interval = balanceSnapshotProperties.interval();
+            taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::snapshotOnSchedule, interval, interval));
+        }
+    }
+
+    private void snapshotOnSchedule() {
+        snapshot(LocalDateTime.now().minus(balanceSnapshotProperties.settleDelay()));
+    }
+
+    /**
+     * Records the balance at {@code at} of every wallet that moved since its latest snapshot.
+     * Idle wallets are skipped, since their latest snapshot still holds.
+     */
+    public long snapshot(LocalDateTime at) {
+        var start = System.nanoTime();
+        var snapshotAt = at.truncatedTo(ChronoUnit.SECONDS);
+        var batchSize = balanceSnapshotProperties.batchSize();
+
+        long wallets = 0;
+        long written = 0;
+        var after = new UUID(0, 0);
+
+        while (true) {
+            // a lagging replica would make the snapshot miss movements for good, so read the primary
+            var cursor = after;
+            var batch = DataSourceRouting.onPrimary(() ->
+                    balanceSnapshotRepository.findMovementsAtAfter(snapshotAt, cursor, Limit.of(batchSize)));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            var snapshots = batch.stream()
+                    .filter(BalanceMovementView::hasMovements)
+                    .map(movements -> new BalanceSnapshot(movements.walletId(), snapshotAt, movements.balance()))
+                    .toList();
+            balanceSnapshotRepository.saveAll(snapshots);
+
+            wallets += batch.size();
+            written += snapshots.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+            after = batch.getLast().walletId();
+        }
+
+        logger.info("Balance snapshot - At: {}, Wallets: {}, Written: {}, ElapsedMs: {}",
+                snapshotAt,
+                wallets,
+                written,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return written;
+    }
+}
@@ -0,0 +1,55 @@
+package tech.jes.jbank.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters next to the {@code jbank.operation} timers:
+ * <ul>
+ *     <li>{@code jbank.rejections}: requests refused for a business reason, tagged by operation and reason</li>
+ *     <li>{@code jbank.statements.page.size}, {@code jbank.statements.rows} and {@code jbank.statements.history.rows}:
+ *     requested page size, rows returned and history size (when counted), tagged by source</li>
+ * </ul>
+ * Optimistic-lock conflicts are counted by {@link ConcurrencyRetry}.
+ */
+@Component
+public class BankingMetrics {
+
+    private static final double[] PAGE_BUCKETS = {1, 10, 20, 50, 100, 500};
+    private static final double[] HISTORY_BUCKETS = {10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final MeterRegistry meterRegistry;
+
+    public BankingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void insufficientBalance(String operation) {
+        rejection(operation, "insufficient_balance");
+    }
+
+    public void walletNotFound(String operation) {
+        rejection(operation, "wallet_not_found");
+    }
+
+    public void statementPage(String source, int pageSize, int rows, Long totalElements) {
+        summary("jbank.statements.page.size", source, PAGE_BUCKETS).record(pageSize);
+        summary("jbank.statements.rows", source, PAGE_BUCKETS).record(rows);
+
+        if (totalElements != null) {
+            summary("jbank.statements.history.rows", source, HISTORY_BUCKETS).record(totalElements);
+        }
+    }
+
+    private void rejection(String operation, String reason) {
+        meterRegistry.counter("jbank.rejections", "operation", operation, "reason", reason).increment();
+    }
+
+    private DistributionSummary summary(String name, String source, double[] buckets) {
+        return DistributionSummary.builder(name)
+                .tag("source", source)
+                .serviceLevelObjectives(buckets)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package tech.jes.jbank.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.RetryProperties;
+import tech.jes.jbank.exception.ConcurrentUpdateException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an operation that failed on an optimistic lock, a lock timeout or a deadlock,
+ * waiting a random time up to an exponentially growing bound between attempts.
+ * The action must open and commit its own transaction, so each attempt starts clean.
+ * <p>
+ * Publishes {@code jbank.concurrency.conflicts}, {@code jbank.concurrency.retries} and
+ * {@code jbank.concurrency.exhausted}, tagged by operation.
+ */
+@Component
+public class ConcurrencyRetry {
+
+    private final RetryProperties retryProperties;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyRetry(RetryProperties retryProperties, MeterRegistry meterRegistry) {
+        this.retryProperties = retryProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                meterRegistry.counter("jbank.concurrency.conflicts", "operation", operation).increment();
+
+                if (attempt >= retryProperties.maxAttempts()) {
+                    meterRegistry.counter("jbank.concurrency.exhausted", "operation", operation).increment();
+                    throw new ConcurrentUpdateException(e);
+                }
+
+                meterRegistry.counter("jbank.concurrency.retries", "operation", operation).increment();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    long backOffBound(int attempt) {
+        var bound = retryProperties.initialBackoff().toNanos() * Math.pow(retryProperties.multiplier(), attempt - 1);
+        return (long) Math.min(bound, retryProperties.maxBackoff().toNanos());
+    }
+
+    private void backOff(int attempt, ConcurrencyFailureException cause) {
+        var bound = backOffBound(attempt);
+
+        if (bound <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(bound)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException(cause);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package tech.jes.jbank.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter with 4-bit counters instead of bits, so keys can be removed as well as added.
+ * Sixteen counters share a {@code long} and are updated with CAS, so it is thread-safe without locks.
+ * A counter that reaches 15 stays there, since it no longer knows how many keys it counts.
+ * <p>
+ * {@link #mightContain} never misses a key that was added and not removed; it answers {@code true}
+ * for an absent key with roughly the configured false-positive probability.
+ */
+final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MAX = 0xF;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+    private final AtomicLong size = new AtomicLong();
+
+    CountingBloomFilter(long expectedKeys, double falsePositiveProbability) {
+        var n = Math.max(1, expectedKeys);
+        var m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+
+        this.words = new AtomicLongArray(Math.toIntExact((m + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+        this.counters = (long) words.length() * COUNTERS_PER_WORD;
+        this.hashes = Math.max(1, (int) Math.round((double) counters / n * Math.log(2)));
+    }
+
+    void add(String key) {
+        var hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            increment(index(hash, i));
+        }
+        size.incrementAndGet();
+    }
+
+    void remove(String key) {
+        var hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            decrement(index(hash, i));
+        }
+        size.decrementAndGet();
+    }
+
+    boolean mightContain(String key) {
+        var hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            if (counter(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive probability expected for the keys currently held: {@code (1 - e^(-k*n/m))^k}.
+     */
+    double expectedFalsePositiveRate() {
+        var n = Math.max(0, size.get());
+        return Math.pow(1 - Math.exp(-(double) hashes * n / counters), hashes);
+    }
+
+    long size() {
+        return size.get();
+    }
+
+    private long counter(long index) {
+        var word = words.get((int) (index / COUNTERS_PER_WORD));
+        return (word >>> shift(index)) & COUNTER_MAX;
+    }
+
+    private void increment(long index) {
+        var wordIndex = (int) (index / COUNTERS_PER_WORD);
+        var shift = shift(index);
+
+        while (true) {
+            var word = words.get(wordIndex);
+            var counter = (word >>> shift) & COUNTER_MAX;
+
+            if (counter == COUNTER_MAX || words.compareAndSet(wordIndex, word, word + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        var wordIndex = (int) (index / COUNTERS_PER_WORD);
+        var shift = shift(index);
+
+        while (true) {
+            var word = words.get(wordIndex);
+            var counter = (word >>> shift) & COUNTER_MAX;
+
+            if (counter == 0 || counter == COUNTER_MAX
+                    || words.compareAndSet(wordIndex, word, word - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    // Kirsch-Mitzenmacher: the i-th index is h1 + i * h2, from the two halves of one 64-bit hash
+    private long index(long hash, int i) {
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        var combined = h1 + (long) i * h2;
+
+        return Math.floorMod(combined, counters);
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 fmix64 avalanche
+    private static long hash(String key) {
+        var h = 0xcbf29ce484222325L;
+        for (var b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,324 @@
+package tech.jes.jbank.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jes.jbank.config.DepositBatchingProperties;
+import tech.jes.jbank.entities.Deposit;
+import tech.jes.jbank.entities.TimeOrderedUuids;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.outbox.Outbox;
+import tech.jes.jbank.repository.DepositRepository;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for deposits. Request threads queue their deposit and wait; a single writer takes up to
+ * {@code maxBatchSize} queued deposits, or whatever arrived within {@code maxWait} of the first one, and commits
+ * them in one transaction: the wallets are locked once in id order, the deposit, ledger and outbox rows go out
+ * as JDBC batches and each wallet gets one update with the sum of its deposits, as does its monthly summary. The
+ * idempotency keys the callers claimed are completed in the same transaction.
+ * Each caller returns after that commit, so a deposit is acknowledged only once it is durable, but the database
+ * pays one commit per group.
+ * <p>
+ * A deposit to a missing wallet fails on its own; any other failure fails the whole group.
+ * Publishes the {@code jbank.deposits.batch.size} summary.
+ */
+@Component
+public class DepositBatcher implements SmartLifecycle {
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private final Logger logger = LoggerFactory.getLogger(DepositBatcher.class);
+
+    private final WalletRepository walletRepository;
+    private final DepositRepository depositRepository;
+    private final LedgerService ledgerService;
+    private final Outbox outbox;
+    private final MonthlySummaryService monthlySummaryService;
+    private final WalletBalanceService walletBalanceService;
+    private final ConcurrencyRetry concurrencyRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final BankingMetrics bankingMetrics;
+    private final WalletCache walletCache;
+    private final ReadYourWrites readYourWrites;
+    private final IdempotencyService idempotencyService;
+    private final DepositBatchingProperties properties;
+    private final BlockingQueue<PendingDeposit> queue;
+    private final DistributionSummary batchSize;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public DepositBatcher(WalletRepository walletRepository,
+                          DepositRepository depositRepository,
+                          LedgerService ledgerService,
+                          Outbox outbox,
+                          MonthlySummaryService monthlySummaryService,
+                          WalletBalanceService walletBalanceService,
+                          ConcurrencyRetry concurrencyRetry,
+                          TransactionTemplate transactionTemplate,
+                          BankingMetrics bankingMetrics,
+                          WalletCache walletCache,
+                          ReadYourWrites readYourWrites,
+                          IdempotencyService idempotencyService,
+                          DepositBatchingProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.walletRepository = walletRepository;
+        this.depositRepository = depositRepository;
+        this.ledgerService = ledgerService;
+        this.outbox = outbox;
+        this.monthlySummaryService = monthlySummaryService;
+        this.walletBalanceService = walletBalanceService;
+        this.concurrencyRetry = concurrencyRetry;
+        this.transactionTemplate = transactionTemplate;
+        this.bankingMetrics = bankingMetrics;
+        this.walletCache = walletCache;
+        this.readYourWrites = readYourWrites;
+        this.idempotencyService = idempotencyService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.batchSize = DistributionSummary.builder("jbank.deposits.batch.size")
+                .serviceLevelObjectives(1, 10, 50, 100, 200, 500)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the deposit and blocks until its group commits.
+     *
+     * @return {@code false} without depositing if batching is off or stopping, or the queue is full;
+     * the caller should then deposit on its own
+     */
+    public boolean deposit(UUID walletId, BigDecimal value, String ipAddress) {
+        if (!running) {
+            return false;
+        }
+
+        var pending = new PendingDeposit(walletId, value, ipAddress, idempotencyService.claimedKey().orElse(null),
+                new CompletableFuture<>());
+
+        if (!queue.offer(pending)) {
+            return false;
+        }
+
+        // stop() may have drained the queue between the check above and the offer, leaving nobody to complete
+        // this deposit; if it is still queued the caller takes it back, otherwise the writer or stop() has it
+        if (!running && queue.remove(pending)) {
+            return false;
+        }
+
+        try {
+            pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("deposit-batcher")
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+
+        try {
+            if (!writer.join(STOP_TIMEOUT)) {
+                logger.warn("Deposit batcher did not drain within {} - Pending: {}", STOP_TIMEOUT, queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // deposits queued while the writer was exiting
+        var late = new ArrayList<PendingDeposit>();
+        queue.drainTo(late);
+        late.forEach(pending -> pending.result()
+                .completeExceptionally(new IllegalStateException("deposit batcher stopped")));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        var batch = new ArrayList<PendingDeposit>(properties.maxBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // waits for a first deposit, then for more until the group is full or maxWait has passed
+    private void collect(List<PendingDeposit> batch) throws InterruptedException {
+        var first = queue.poll(IDLE_POLL.toNanos(), TimeUnit.NANOSECONDS);
+
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        var deadline = System.nanoTime() + properties.maxWait().toNanos();
+
+        while (batch.size() < properties.maxBatchSize()) {
+            queue.drainTo(batch, properties.maxBatchSize() - batch.size());
+
+            var remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.maxBatchSize() || remaining <= 0) {
+                return;
+            }
+
+            var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingDeposit> batch) {
+        batchSize.record(batch.size());
+
+        try {
+            var missing = concurrencyRetry.execute("depositMoneyBatch",
+                    () -> transactionTemplate.execute(status -> apply(batch)));
+
+            for (var pending : batch) {
+                if (missing.contains(pending.walletId())) {
+                    bankingMetrics.walletNotFound("depositMoney");
+                    pending.result().completeExceptionally(
+                            new WalletNotFoundException("there is no wallet with this id"));
+                } else {
+                    pending.result().complete(null);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Deposit group failed - Deposits: {}", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * @return the ids of the wallets that do not exist
+     */
+    private Set<UUID> apply(List<PendingDeposit> batch) {
+
+        var walletIds = new HashSet<UUID>();
+        batch.forEach(pending -> walletIds.add(pending.walletId()));
+
+        var wallets = new HashMap<UUID, Wallet>();
+        walletRepository.findByWalletIdInOrderByWalletId(walletIds)
+                .forEach(wallet -> wallets.put(wallet.getWalletId(), wallet));
+
+        var deposits = new ArrayList<Deposit>(batch.size());
+        var idempotencyKeys = new ArrayList<String>();
+        var credits = new TreeMap<UUID, BigDecimal>(TimeOrderedUuids.BYTE_ORDER);
+        var now = LocalDateTime.now();
+
+        for (var pending : batch) {
+            var wallet = wallets.get(pending.walletId());
+
+            if (wallet == null) {
+                continue;
+            }
+
+            var deposit = new Deposit();
+            deposit.setWallet(wallet);
+            deposit.setDepositValue(pending.value());
+            deposit.setDepositDatetime(now);
+            deposit.setIpAddress(pending.ipAddress());
+            deposits.add(deposit);
+
+            credits.merge(wallet.getWalletId(), pending.value(), BigDecimal::add);
+
+            if (pending.idempotencyKey() != null) {
+                idempotencyKeys.add(pending.idempotencyKey());
+            }
+        }
+
+        // hot wallets lock one balance slot each in wallet id byte order, as transfers do, and before the
+        // monthly summary rows
+        credits.forEach((walletId, value) -> {
+            var wallet = wallets.get(walletId);
+
+            if (WalletBalanceService.isHot(wallet)) {
+                walletBalanceService.creditSlots(wallet, value);
+            } else {
+                wallet.setBalance(wallet.getBalance().add(value));
+                walletCache.putAfterCommit(wallet);
+            }
+        });
+
+        depositRepository.saveAll(deposits);
+        deposits.forEach(deposit -> {
+            ledgerService.recordDeposit(deposit);
+            outbox.recordDeposit(deposit);
+        });
+        monthlySummaryService.recordDeposits(deposits);
+        readYourWrites.recordAfterCommit(wallets.keySet());
+        idempotencyService.completeInTransaction(idempotencyKeys);
+
+        walletIds.removeAll(wallets.keySet());
+        return walletIds;
+    }
+
+    private record PendingDeposit(UUID walletId,
+                                  BigDecimal value,
+                                  String ipAddress,
+                                  String idempotencyKey,
+                                  CompletableFuture<Void> result) {
+    }
+}
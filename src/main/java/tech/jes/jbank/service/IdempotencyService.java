@@ -0,0 +1,347 @@
+package tech.jes.jbank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import tech.jes.jbank.config.DataSourceRouting;
+import tech.jes.jbank.config.IdempotencyProperties;
+import tech.jes.jbank.entities.IdempotencyKey;
+import tech.jes.jbank.exception.IdempotencyKeyInProgressException;
+import tech.jes.jbank.exception.IdempotencyKeyMismatchException;
+import tech.jes.jbank.exception.IdempotentReplayException;
+import tech.jes.jbank.exception.InvalidIdempotencyKeyException;
+import tech.jes.jbank.exception.JBankException;
+import tech.jes.jbank.repository.IdempotencyKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a money-moving request at most once per {@code Idempotency-Key}.
+ * <p>
+ * The first request claims the key in tb_idempotency_keys and runs. A success is recorded by the transaction
+ * that moves the money ({@link #completeInTransaction}), so the key is completed if and only if the money moved;
+ * a client error is stored once that transaction has rolled back. Retries get the outcome back from an in-memory
+ * cache, or from the table once evicted, without running the operation again. A duplicate that arrives while the
+ * first request is still running on this instance waits for it; on another instance it gets a 409.
+ * <p>
+ * When the operation fails otherwise, the row tells whether its transaction committed: if so the request
+ * succeeded; if not, errors raised by our own code and conflicts release the key so the client can retry. Any
+ * other failure may have happened around the commit, so the key is left in progress until
+ * {@code inProgressTimeout}, when a retry takes it over and runs again; if the first run did commit after all,
+ * only one of the two can complete the key and the other rolls back.
+ */
+@Service
+public class IdempotencyService implements SchedulingConfigurer {
+
+    private static final int KEY_MAX_LENGTH = 255;
+
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Outcome> outcomes;
+    private final ConcurrentHashMap<String, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> claimed = new ThreadLocal<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              IdempotencyProperties idempotencyProperties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.objectMapper = objectMapper;
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.cacheSize())
+                .expireAfterWrite(idempotencyProperties.cacheTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, outcomes, "idempotency");
+    }
+
+    /**
+     * @param key       the client's {@code Idempotency-Key}; without one the action simply runs
+     * @param operation name of the endpoint, so one key cannot be replayed against another
+     * @param request   request body and path values; a retry must send the same ones
+     * @param action    the operation, which must open and commit its own transaction and call
+     *                  {@link #completeInTransaction} in it
+     */
+    public void execute(String key, String operation, Object request, Runnable action) {
+
+        if (key == null) {
+            action.run();
+            return;
+        }
+
+        if (key.isBlank() || key.length() > KEY_MAX_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "the key must have between 1 and " + KEY_MAX_LENGTH + " characters");
+        }
+
+        var fingerprint = fingerprint(operation, request);
+
+        while (true) {
+            var outcome = outcomes.getIfPresent(key);
+            if (outcome != null) {
+                replay(outcome, fingerprint);
+                return;
+            }
+
+            var claim = new CompletableFuture<Outcome>();
+            var running = inFlight.putIfAbsent(key, claim);
+
+            if (running == null) {
+                lead(key, fingerprint, action, claim);
+                return;
+            }
+
+            // null means the first request released the key, so try to claim it again
+            outcome = await(running);
+            if (outcome != null) {
+                replay(outcome, fingerprint);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Key claimed by the request running on this thread, if it has one. The deposit batcher carries it over to the
+     * transaction of its writer thread.
+     */
+    public Optional<String> claimedKey() {
+        return Optional.ofNullable(claimed.get());
+    }
+
+    /**
+     * Completes the key claimed by this thread, if any, within the current transaction.
+     */
+    public void completeInTransaction() {
+        claimedKey().ifPresent(key -> completeInTransaction(List.of(key)));
+    }
+
+    /**
+     * Completes the keys with a success within the current transaction, which must be the one moving the money.
+     * Fails, rolling it back, when a key is no longer in progress: a retry took it over and completed it first.
+     */
+    public void completeInTransaction(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        if (idempotencyKeyRepository.completeAll(keys, LocalDateTime.now()) != keys.size()) {
+            throw inProgress();
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::deleteExpiredKeys, idempotencyProperties.cleanupInterval());
+    }
+
+    public void deleteExpiredKeys() {
+        var deleted = idempotencyKeyRepository.deleteCreatedBefore(
+                LocalDateTime.now().minus(idempotencyProperties.retention()));
+
+        if (deleted > 0) {
+            logger.info("Idempotency keys expired - Deleted: {}", deleted);
+        }
+    }
+
+    private void lead(String key, String fingerprint, Runnable action, CompletableFuture<Outcome> claim) {
+        Outcome outcome = null;
+
+        try {
+            // a replica may not have the key another instance just completed yet
+            var stored = DataSourceRouting.onPrimary(() -> idempotencyKeyRepository.findById(key));
+
+            if (stored.isEmpty()) {
+                claim(key, fingerprint);
+            } else if (!takeOver(stored.get(), fingerprint)) {
+                outcome = Outcome.of(stored.get());
+                if (outcome == null) {
+                    throw inProgress();
+                }
+                replay(outcome, fingerprint);
+                return;
+            }
+
+            outcome = run(key, fingerprint, action);
+
+        } finally {
+            if (outcome != null) {
+                outcomes.put(key, outcome);
+            }
+            inFlight.remove(key, claim);
+            claim.complete(outcome);
+        }
+    }
+
+    private void claim(String key, String fingerprint) {
+        try {
+            idempotencyKeyRepository.claim(key, fingerprint, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            throw inProgress();
+        }
+    }
+
+    // a key left in progress by a request that died, since its outcome would have committed with the money
+    private boolean takeOver(IdempotencyKey stored, String fingerprint) {
+        var now = LocalDateTime.now();
+        var staleBefore = now.minus(idempotencyProperties.inProgressTimeout());
+
+        if (stored.getStatus() != IdempotencyKey.Status.IN_PROGRESS || !stored.getCreatedAt().isBefore(staleBefore)) {
+            return false;
+        }
+
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("the key was already used with a different request");
+        }
+
+        var taken = idempotencyKeyRepository.takeOver(stored.getKey(), now, staleBefore) == 1;
+        if (taken) {
+            logger.warn("Idempotency key taken over after {} in progress - Key: {}",
+                    idempotencyProperties.inProgressTimeout(), stored.getKey());
+        }
+        return taken;
+    }
+
+    private Outcome run(String key, String fingerprint, Runnable action) {
+        claimed.set(key);
+        try {
+            action.run();
+        } catch (JBankException e) {
+            var pd = e.toProblemDetail();
+
+            if (pd.getStatus() >= 500 || pd.getStatus() == HttpStatus.CONFLICT.value()) {
+                return resolve(key, fingerprint, e, true);
+            }
+
+            // thrown inside the transaction, which rolled back, so nothing else completes the key
+            store(key, new Outcome(fingerprint, pd.getStatus(), pd.getTitle(), pd.getDetail()));
+            throw e;
+        } catch (RuntimeException e) {
+            return resolve(key, fingerprint, e, false);
+        } finally {
+            claimed.remove();
+        }
+
+        // completed by the transaction of the action
+        return new Outcome(fingerprint, HttpStatus.OK.value(), null, null);
+    }
+
+    /**
+     * Decides what a failed action did from the key itself, which only its transaction completes.
+     *
+     * @param rolledBack whether the failure is known to come before the commit, so the key can be released
+     */
+    private Outcome resolve(String key, String fingerprint, RuntimeException e, boolean rolledBack) {
+        Optional<IdempotencyKey.Status> status;
+        try {
+            status = DataSourceRouting.onPrimary(() -> idempotencyKeyRepository.findStatus(key));
+        } catch (RuntimeException lookup) {
+            e.addSuppressed(lookup);
+            throw e;
+        }
+
+        if (status.orElse(null) == IdempotencyKey.Status.COMPLETED) {
+            logger.warn("Idempotent request failed after its transaction committed - Key: {}", key, e);
+            return new Outcome(fingerprint, HttpStatus.OK.value(), null, null);
+        }
+
+        if (rolledBack) {
+            idempotencyKeyRepository.release(key);
+        }
+        throw e;
+    }
+
+    private void store(String key, Outcome outcome) {
+        var stored = idempotencyKeyRepository.complete(
+                key,
+                outcome.status(),
+                outcome.title(),
+                outcome.detail(),
+                LocalDateTime.now()
+        );
+
+        // the failed request rethrows after this, so cache the outcome here
+        if (stored == 1) {
+            outcomes.put(key, outcome);
+        }
+    }
+
+    private Outcome await(CompletableFuture<Outcome> running) {
+        try {
+            return running.get(idempotencyProperties.waitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private static void replay(Outcome outcome, String fingerprint) {
+
+        if (!outcome.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("the key was already used with a different request");
+        }
+
+        if (outcome.status() >= 400) {
+            throw new IdempotentReplayException(outcome.status(), outcome.title(), outcome.detail());
+        }
+    }
+
+    private static IdempotencyKeyInProgressException inProgress() {
+        return new IdempotencyKeyInProgressException("a request with this key is still in progress");
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Outcome(String fingerprint, int status, String title, String detail) {
+
+        static Outcome of(IdempotencyKey key) {
+            if (key.getStatus() != IdempotencyKey.Status.COMPLETED) {
+                return null;
+            }
+            return new Outcome(
+                    key.getFingerprint(),
+                    key.getResponseStatus(),
+                    key.getProblemTitle(),
+                    key.getProblemDetail()
+            );
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tech.jes.jbank.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.LedgerProperties;
+import tech.jes.jbank.repository.LedgerEntryRepository;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Copies deposits and transfers recorded before the ledger existed into tb_ledger_entries.
+ * Each batch is its own transaction and skips sources that already have their entry,
+ * so the job can be interrupted and run again safely while traffic is flowing.
+ * The unique (source_id, operation) index makes runs on several instances at once safe too:
+ * rows another run inserted first are ignored instead of duplicated.
+ */
+@Component
+public class LedgerBackfillJob {
+
+    private final Logger logger = LoggerFactory.getLogger(LedgerBackfillJob.class);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerProperties ledgerProperties;
+
+    public LedgerBackfillJob(LedgerEntryRepository ledgerEntryRepository,
+                             LedgerProperties ledgerProperties) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerProperties = ledgerProperties;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (ledgerProperties.backfillOnStartup()) {
+            backfill();
+        }
+    }
+
+    public long backfill() {
+        var start = System.nanoTime();
+
+        var deposits = drain(ledgerEntryRepository::backfillDeposits);
+        var credits = drain(ledgerEntryRepository::backfillTransferCredits);
+        var debits = drain(ledgerEntryRepository::backfillTransferDebits);
+
+        logger.info("Ledger backfill - Deposits: {}, TransferCredits: {}, TransferDebits: {}, ElapsedMs: {}",
+                deposits,
+                credits,
+                debits,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return deposits + credits + debits;
+    }
+
+    private long drain(IntUnaryOperator batch) {
+        var batchSize = ledgerProperties.backfillBatchSize();
+        long total = 0;
+        int inserted;
+
+        do {
+            inserted = batch.applyAsInt(batchSize);
+            total += inserted;
+        } while (inserted > 0); // a short batch may only have lost rows to another run
+
+        return total;
+    }
+}
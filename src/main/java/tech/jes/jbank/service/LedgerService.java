@@ -0,0 +1,207 @@
+package tech.jes.jbank.service;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import tech.jes.jbank.controller.dto.PaginationDto;
+import tech.jes.jbank.controller.dto.StatementItemDto;
+import tech.jes.jbank.controller.dto.StatementOperation;
+import tech.jes.jbank.entities.Deposit;
+import tech.jes.jbank.entities.LedgerEntry;
+import tech.jes.jbank.entities.Transfer;
+import tech.jes.jbank.repository.LedgerEntryRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps one append-only ledger row per wallet affected by a deposit or a transfer.
+ * Callers must run inside the transaction that moves the money.
+ */
+@Service
+public class LedgerService {
+
+    private static final Sort STATEMENT_ORDER = Sort.by(Sort.Direction.DESC, "entryDateTime", "entryId");
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+    }
+
+    public void recordDeposit(Deposit deposit) {
+        ledgerEntryRepository.save(entry(
+                deposit.getWallet().getWalletId(),
+                deposit.getDepositID(),
+                LedgerEntry.TYPE_DEPOSIT,
+                StatementOperation.CREDIT,
+                deposit.getDepositValue(),
+                null,
+                deposit.getDepositDatetime()
+        ));
+    }
+
+    public void recordTransfer(Transfer transfer) {
+        ledgerEntryRepository.saveAll(transferEntries(transfer));
+    }
+
+    public void recordTransfers(List<Transfer> transfers) {
+        ledgerEntryRepository.saveAll(transfers.stream()
+                .flatMap(transfer -> transferEntries(transfer).stream())
+                .toList());
+    }
+
+    List<LedgerEntry> transferEntries(Transfer transfer) {
+        var senderId = transfer.getSender().getWalletId();
+        var receiverId = transfer.getReceiver().getWalletId();
+
+        var debit = entry(
+                senderId,
+                transfer.getTransferId(),
+                LedgerEntry.TYPE_TRANSFER,
+                StatementOperation.DEBIT,
+                transfer.getTransferValue().negate(),
+                receiverId,
+                transfer.getTransferDateTime()
+        );
+        var credit = entry(
+                receiverId,
+                transfer.getTransferId(),
+                LedgerEntry.TYPE_TRANSFER,
+                StatementOperation.CREDIT,
+                transfer.getTransferValue(),
+                senderId,
+                transfer.getTransferDateTime()
+        );
+
+        return List.of(debit, credit);
+    }
+
+    StatementPage findStatements(UUID walletId,
+                                 Integer page,
+                                 Integer pageSize,
+                                 StatementCursor cursor,
+                                 boolean includeTotal) {
+
+        if (cursor != null) {
+            return findStatementsAfter(walletId, cursor, pageSize, includeTotal);
+        }
+
+        var pageRequest = PageRequest.of(page, pageSize, STATEMENT_ORDER);
+
+        if (!includeTotal) {
+            var entries = ledgerEntryRepository.findSliceByWalletId(walletId, pageRequest);
+
+            return new StatementPage(
+                    entries.map(LedgerService::mapToDto).getContent(),
+                    new PaginationDto(
+                            entries.getNumber(),
+                            entries.getSize(),
+                            null,
+                            null,
+                            nextCursor(entries.getContent(), entries.hasNext())
+                    )
+            );
+        }
+
+        var entries = ledgerEntryRepository.findByWalletId(walletId, pageRequest);
+
+        return new StatementPage(
+                entries.map(LedgerService::mapToDto).getContent(),
+                new PaginationDto(
+                        entries.getNumber(),
+                        entries.getSize(),
+                        entries.getTotalElements(),
+                        entries.getTotalPages(),
+                        nextCursor(entries.getContent(), entries.hasNext())
+                )
+        );
+    }
+
+    private StatementPage findStatementsAfter(UUID walletId,
+                                              StatementCursor cursor,
+                                              Integer pageSize,
+                                              boolean includeTotal) {
+
+        var entries = ledgerEntryRepository.findByWalletIdBefore(
+                walletId,
+                cursor.dateTime(),
+                UUID.fromString(cursor.statementId()),
+                Limit.of(pageSize + 1)
+        );
+
+        var hasNext = entries.size() > pageSize;
+        var content = hasNext ? entries.subList(0, pageSize) : entries;
+
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (includeTotal) {
+            totalElements = ledgerEntryRepository.countByWalletId(walletId);
+            totalPages = (int) Math.ceil((double) totalElements / pageSize);
+        }
+
+        return new StatementPage(
+                content.stream().map(LedgerService::mapToDto).toList(),
+                new PaginationDto(
+                        null,
+                        pageSize,
+                        totalElements,
+                        totalPages,
+                        nextCursor(content, hasNext)
+                )
+        );
+    }
+
+    // ledger cursors point at the entry, since a self transfer yields two entries with the same source
+    private static String nextCursor(List<LedgerEntry> content, boolean hasNext) {
+        if (!hasNext || content.isEmpty()) {
+            return null;
+        }
+
+        var last = content.getLast();
+
+        return new StatementCursor(last.getEntryDateTime(), last.getEntryId().toString()).encode();
+    }
+
+    static StatementItemDto mapToDto(LedgerEntry entry) {
+
+        String literal;
+        if (LedgerEntry.TYPE_DEPOSIT.equals(entry.getType())) {
+            literal = "money deposit";
+        } else if (entry.getOperation() == StatementOperation.CREDIT) {
+            literal = "money received from " + entry.getCounterpartyWalletId();
+        } else {
+            literal = "money sent to " + entry.getCounterpartyWalletId();
+        }
+
+        return new StatementItemDto(
+                entry.getSourceId().toString(),
+                entry.getType(),
+                literal,
+                entry.getAmount().abs(),
+                entry.getEntryDateTime(),
+                entry.getOperation()
+        );
+    }
+
+    private static LedgerEntry entry(UUID walletId,
+                                     UUID sourceId,
+                                     String type,
+                                     StatementOperation operation,
+                                     BigDecimal amount,
+                                     UUID counterpartyWalletId,
+                                     LocalDateTime dateTime) {
+        var entry = new LedgerEntry();
+        entry.setWalletId(walletId);
+        entry.setSourceId(sourceId);
+        entry.setType(type);
+        entry.setOperation(operation);
+        entry.setAmount(amount);
+        entry.setCounterpartyWalletId(counterpartyWalletId);
+        entry.setEntryDateTime(dateTime);
+        return entry;
+    }
+}
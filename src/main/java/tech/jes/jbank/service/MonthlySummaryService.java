@@ -0,0 +1,306 @@
+package tech.jes.jbank.service;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jes.jbank.config.MonthlySummaryProperties;
+import tech.jes.jbank.controller.dto.MonthlySummaryDto;
+import tech.jes.jbank.controller.dto.SummaryDto;
+import tech.jes.jbank.entities.Deposit;
+import tech.jes.jbank.entities.MonthlySummary;
+import tech.jes.jbank.entities.TimeOrderedUuids;
+import tech.jes.jbank.entities.Transfer;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.exception.SummaryQueryException;
+import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.repository.MonthlySummaryRepository;
+import tech.jes.jbank.repository.dto.MonthlyMovementView;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps tb_monthly_summaries, the credit and debit sums and counts of each wallet per month, so a summary over a
+ * year reads at most 12 rows (per balance slot) instead of the whole statement.
+ * <p>
+ * The record methods add to the months they touch and must run inside the transaction that moves the money,
+ * after the balances have changed: every caller then holds the wallet row (or balance slot) lock before it takes the
+ * summary row locks, always in that order. Rows are upserted in key order, so transactions touching the same wallets
+ * cannot deadlock on them either. Plain wallets add to slot 0; hot wallets add to a random one of their balance
+ * slots, as their balance does.
+ */
+@Service
+public class MonthlySummaryService {
+
+    private static final Comparator<SummaryKey> KEY_ORDER = Comparator.comparing(SummaryKey::walletId, TimeOrderedUuids.BYTE_ORDER)
+            .thenComparing(SummaryKey::month)
+            .thenComparingInt(SummaryKey::slot);
+
+    private final Logger logger = LoggerFactory.getLogger(MonthlySummaryService.class);
+
+    private final MonthlySummaryRepository monthlySummaryRepository;
+    private final MonthlySummaryProperties monthlySummaryProperties;
+    private final WalletCache walletCache;
+    private final ReadYourWrites readYourWrites;
+    private final ConcurrencyRetry concurrencyRetry;
+    private final TransactionTemplate transactionTemplate;
+
+    public MonthlySummaryService(MonthlySummaryRepository monthlySummaryRepository,
+                                 MonthlySummaryProperties monthlySummaryProperties,
+                                 WalletCache walletCache,
+                                 ReadYourWrites readYourWrites,
+                                 ConcurrencyRetry concurrencyRetry,
+                                 TransactionTemplate transactionTemplate) {
+        this.monthlySummaryRepository = monthlySummaryRepository;
+        this.monthlySummaryProperties = monthlySummaryProperties;
+        this.walletCache = walletCache;
+        this.readYourWrites = readYourWrites;
+        this.concurrencyRetry = concurrencyRetry;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void recordDeposit(Deposit deposit) {
+        recordDeposits(List.of(deposit));
+    }
+
+    public void recordDeposits(List<Deposit> deposits) {
+        var changes = new Changes();
+        deposits.forEach(deposit ->
+                changes.of(deposit.getWallet(), deposit.getDepositDatetime()).credit(deposit.getDepositValue(), 1));
+        apply(changes.totals);
+    }
+
+    public void recordTransfer(Transfer transfer) {
+        recordTransfers(List.of(transfer));
+    }
+
+    public void recordTransfers(List<Transfer> transfers) {
+        var changes = new Changes();
+        for (var transfer : transfers) {
+            changes.of(transfer.getReceiver(), transfer.getTransferDateTime()).credit(transfer.getTransferValue(), 1);
+            changes.of(transfer.getSender(), transfer.getTransferDateTime()).debit(transfer.getTransferValue(), 1);
+        }
+        apply(changes.totals);
+    }
+
+    private void apply(Map<SummaryKey, Totals> changes) {
+        changes.forEach((key, totals) -> monthlySummaryRepository.add(
+                key.walletId(),
+                key.month(),
+                key.slot(),
+                totals.credits,
+                totals.creditCount,
+                totals.debits,
+                totals.debitCount
+        ));
+    }
+
+    /**
+     * Months from {@code from} to {@code to}, inclusive, with zeros for the months without movements.
+     * By default the twelve months up to the current one.
+     */
+    @Transactional(readOnly = true)
+    public SummaryDto summary(UUID walletId, YearMonth from, YearMonth to) {
+
+        var until = to == null ? YearMonth.now() : to;
+        var since = from == null ? until.minusMonths(11) : from;
+
+        if (since.isAfter(until)) {
+            throw new SummaryQueryException("from must not be after to");
+        }
+        if (since.until(until, ChronoUnit.MONTHS) >= monthlySummaryProperties.maxMonths()) {
+            throw new SummaryQueryException("the range must not exceed " + monthlySummaryProperties.maxMonths() + " months");
+        }
+
+        return readYourWrites.read(walletId, () -> readSummary(walletId, since, until));
+    }
+
+    private SummaryDto readSummary(UUID walletId, YearMonth from, YearMonth to) {
+
+        walletCache.find(walletId)
+                .orElseThrow(() -> new WalletNotFoundException("there is no wallet with this id"));
+
+        var months = new LinkedHashMap<YearMonth, Totals>();
+        for (var month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.put(month, new Totals());
+        }
+
+        for (var row : monthlySummaryRepository.findMonths(walletId, from.atDay(1), to.atDay(1))) {
+            months.get(YearMonth.from(row.getMonth()))
+                    .credit(row.getCredits(), row.getCreditCount())
+                    .debit(row.getDebits(), row.getDebitCount());
+        }
+
+        var total = new Totals();
+        var items = months.entrySet()
+                .stream()
+                .map(entry -> {
+                    var month = entry.getValue();
+                    total.credit(month.credits, month.creditCount).debit(month.debits, month.debitCount);
+                    return new MonthlySummaryDto(
+                            entry.getKey(),
+                            month.credits,
+                            month.creditCount,
+                            month.debits,
+                            month.debitCount
+                    );
+                })
+                .toList();
+
+        return new SummaryDto(
+                walletId,
+                from,
+                to,
+                total.credits,
+                total.creditCount,
+                total.debits,
+                total.debitCount,
+                items
+        );
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (monthlySummaryProperties.rebuildOnStartup()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes the summaries of every wallet from tb_deposits and tb_transfer, one batch of wallets per
+     * transaction, while traffic keeps adding to them.
+     */
+    public long rebuild() {
+        var start = System.nanoTime();
+        var batchSize = monthlySummaryProperties.rebuildBatchSize();
+
+        long wallets = 0;
+        long written = 0;
+        var after = new UUID(0, 0);
+
+        while (true) {
+            var walletIds = monthlySummaryRepository.findWalletIdsAfter(after, Limit.of(batchSize));
+            if (walletIds.isEmpty()) {
+                break;
+            }
+
+            var first = walletIds.getFirst();
+            var last = walletIds.getLast();
+            written += concurrencyRetry.execute("rebuildMonthlySummaries",
+                    () -> transactionTemplate.execute(status -> rebuildWallets(first, last)));
+            wallets += walletIds.size();
+
+            if (walletIds.size() < batchSize) {
+                break;
+            }
+            after = last;
+        }
+
+        logger.info("Monthly summary rebuild - Wallets: {}, Written: {}, ElapsedMs: {}",
+                wallets,
+                written,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return written;
+    }
+
+    private int rebuildWallets(UUID first, UUID last) {
+
+        // deleting first locks the range before the sums are read: a movement committing meanwhile is either
+        // already in the sums or still waiting to add its increment on top of the rebuilt rows
+        monthlySummaryRepository.deleteWallets(first, last);
+
+        var totals = new TreeMap<SummaryKey, Totals>(KEY_ORDER);
+        monthlySummaryRepository.sumDeposits(first, last)
+                .forEach(view -> totalsOf(totals, view).credit(view.total(), view.count()));
+        monthlySummaryRepository.sumTransfersReceived(first, last)
+                .forEach(view -> totalsOf(totals, view).credit(view.total(), view.count()));
+        monthlySummaryRepository.sumTransfersSent(first, last)
+                .forEach(view -> totalsOf(totals, view).debit(view.total(), view.count()));
+
+        var rows = totals.entrySet()
+                .stream()
+                .map(entry -> new MonthlySummary(
+                        entry.getKey().walletId(),
+                        entry.getKey().month(),
+                        entry.getKey().slot(),
+                        entry.getValue().credits,
+                        entry.getValue().creditCount,
+                        entry.getValue().debits,
+                        entry.getValue().debitCount
+                ))
+                .toList();
+        monthlySummaryRepository.saveAll(rows);
+
+        return rows.size();
+    }
+
+    private static Totals totalsOf(Map<SummaryKey, Totals> totals, MonthlyMovementView view) {
+        var key = new SummaryKey(view.walletId(), LocalDate.of(view.year(), view.month(), 1), 0);
+        return totals.computeIfAbsent(key, k -> new Totals());
+    }
+
+    private record SummaryKey(UUID walletId, LocalDate month, int slot) {
+    }
+
+    private static final class Totals {
+
+        private BigDecimal credits = BigDecimal.ZERO;
+        private long creditCount;
+        private BigDecimal debits = BigDecimal.ZERO;
+        private long debitCount;
+
+        Totals credit(BigDecimal value, long count) {
+            credits = credits.add(value);
+            creditCount += count;
+            return this;
+        }
+
+        Totals debit(BigDecimal value, long count) {
+            debits = debits.add(value);
+            debitCount += count;
+            return this;
+        }
+    }
+
+    // one slot per wallet for the whole call, so a batch adds to as few rows as possible
+    private static final class Changes {
+
+        private final Map<SummaryKey, Totals> totals = new TreeMap<>(KEY_ORDER);
+        private final Map<UUID, Integer> slots = new HashMap<>();
+
+        Totals of(Wallet wallet, LocalDateTime dateTime) {
+            var slot = slots.computeIfAbsent(wallet.getWalletId(), walletId -> slotOf(wallet));
+            var key = new SummaryKey(wallet.getWalletId(), dateTime.toLocalDate().withDayOfMonth(1), slot);
+            return totals.computeIfAbsent(key, k -> new Totals());
+        }
+
+        // single transfers move plain wallets with UPDATE statements and only hold a proxy; hot ones are loaded
+        private static int slotOf(Wallet wallet) {
+            if (!Hibernate.isInitialized(wallet) || !WalletBalanceService.isHot(wallet)) {
+                return 0;
+            }
+            return ThreadLocalRandom.current().nextInt(wallet.getBalanceSlots());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package tech.jes.jbank.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.jes.jbank.config.DataSourceRouting;
+import tech.jes.jbank.config.ReplicaProperties;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which wallets changed in the last {@code jbank.replicas.read-your-writes-window}, so reads about them
+ * go to the primary until the replicas have most likely caught up. Does nothing when replicas are disabled.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final long MAX_TRACKED_WALLETS = 100_000;
+
+    private final Cache<UUID, Boolean> recentlyWritten;
+
+    public ReadYourWrites(ReplicaProperties replicaProperties) {
+        this.recentlyWritten = replicaProperties.enabled() && replicaProperties.readYourWritesWindow().isPositive() ?
+                Caffeine.newBuilder()
+                        .maximumSize(MAX_TRACKED_WALLETS)
+                        .expireAfterWrite(replicaProperties.readYourWritesWindow())
+                        .build() :
+                null;
+    }
+
+    /**
+     * Runs {@code query} on the primary if {@code walletId} changed within the window, wherever it would go otherwise.
+     */
+    public <T> T read(UUID walletId, Supplier<T> query) {
+        if (recentlyWritten != null && recentlyWritten.getIfPresent(walletId) != null) {
+            return DataSourceRouting.onPrimary(query);
+        }
+        return query.get();
+    }
+
+    public void recordAfterCommit(UUID walletId) {
+        recordAfterCommit(List.of(walletId));
+    }
+
+    /**
+     * The window starts when the current transaction commits; nothing is recorded if it rolls back.
+     */
+    public void recordAfterCommit(Collection<UUID> walletIds) {
+
+        if (recentlyWritten == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            walletIds.forEach(walletId -> recentlyWritten.put(walletId, Boolean.TRUE));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                walletIds.forEach(walletId -> recentlyWritten.put(walletId, Boolean.TRUE));
+            }
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package tech.jes.jbank.service;
+
+import tech.jes.jbank.exception.StatementCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque position in a wallet statement, pointing at the last entry a client has seen.
+ * Entries are ordered by date time and then by id, both descending.
+ */
+public record StatementCursor(LocalDateTime dateTime, String statementId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        var raw = dateTime + SEPARATOR + statementId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StatementCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = raw.indexOf(SEPARATOR);
+
+            var dateTime = LocalDateTime.parse(raw.substring(0, separator));
+            var statementId = UUID.fromString(raw.substring(separator + 1)).toString();
+
+            return new StatementCursor(dateTime, statementId);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new StatementCursorException("the cursor is malformed or was not issued by this api");
+        }
+    }
+}
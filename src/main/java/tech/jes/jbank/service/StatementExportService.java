@@ -0,0 +1,174 @@
+package tech.jes.jbank.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tech.jes.jbank.config.LedgerProperties;
+import tech.jes.jbank.config.StatementExportProperties;
+import tech.jes.jbank.controller.dto.StatementExportFormat;
+import tech.jes.jbank.controller.dto.StatementItemDto;
+import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.repository.LedgerEntryRepository;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes a wallet's whole statement history, newest first, straight to the response.
+ * <p>
+ * The history is read in keyset chunks of {@code jbank.statement-export.chunk-size} rows. Each chunk is
+ * read whole, as a list, inside its own short read-only transaction and only written to the client after
+ * that transaction ends, so neither memory nor any transaction grows with the size of the history or the
+ * speed of the client.
+ */
+@Service
+public class StatementExportService {
+
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final UUID LAST_ID = new UUID(-1, -1);
+    private static final String CSV_HEADER = "statement_id,type,literal,value,date_time,operation";
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletService walletService;
+    private final WalletCache walletCache;
+    private final LedgerProperties ledgerProperties;
+    private final StatementExportProperties statementExportProperties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadYourWrites readYourWrites;
+
+    public StatementExportService(WalletRepository walletRepository,
+                                  LedgerEntryRepository ledgerEntryRepository,
+                                  WalletService walletService,
+                                  WalletCache walletCache,
+                                  LedgerProperties ledgerProperties,
+                                  StatementExportProperties statementExportProperties,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  ReadYourWrites readYourWrites) {
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.walletService = walletService;
+        this.walletCache = walletCache;
+        this.ledgerProperties = ledgerProperties;
+        this.statementExportProperties = statementExportProperties;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Checks the wallet up front, so a missing one is still answered with a 404 instead of an empty stream.
+     */
+    public StreamingResponseBody export(UUID walletId, StatementExportFormat format) {
+
+        readYourWrites.read(walletId, () -> walletCache.find(walletId))
+                .orElseThrow(() -> new WalletNotFoundException("there is no wallet with this id"));
+
+        return outputStream -> {
+            var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            if (format == StatementExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+            }
+
+            var chunk = readChunk(walletId, END_OF_TIME, LAST_ID.toString());
+            while (true) {
+                for (var item : chunk.items()) {
+                    write(writer, format, item);
+                }
+                writer.flush();
+
+                if (chunk.items().size() < statementExportProperties.chunkSize()) {
+                    break;
+                }
+                chunk = readChunk(walletId, chunk.lastDateTime(), chunk.lastId());
+            }
+        };
+    }
+
+    private Chunk readChunk(UUID walletId, LocalDateTime dateTime, String id) {
+        return readYourWrites.read(walletId, () -> readOnlyTransaction.execute(status ->
+                ledgerProperties.statementsEnabled() ?
+                        readLedgerChunk(walletId, dateTime, UUID.fromString(id)) :
+                        readUnionChunk(walletId, dateTime, id)));
+    }
+
+    private Chunk readUnionChunk(UUID walletId, LocalDateTime dateTime, String statementId) {
+        var views = walletRepository.findStatementsBefore(
+                walletId.toString(), dateTime, statementId, statementExportProperties.chunkSize());
+
+        if (views.isEmpty()) {
+            return new Chunk(List.of(), dateTime, statementId);
+        }
+
+        var last = views.getLast();
+        var items = views.stream()
+                .map(view -> walletService.mapToDto(walletId, view))
+                .toList();
+
+        return new Chunk(items, last.getStatementDateTime(), last.getStatementId());
+    }
+
+    // ledger cursors point at the entry, since a self transfer yields two entries with the same source
+    private Chunk readLedgerChunk(UUID walletId, LocalDateTime dateTime, UUID entryId) {
+        var entries = ledgerEntryRepository.findByWalletIdBefore(
+                walletId, dateTime, entryId, Limit.of(statementExportProperties.chunkSize()));
+
+        if (entries.isEmpty()) {
+            return new Chunk(List.of(), dateTime, entryId.toString());
+        }
+
+        var last = entries.getLast();
+        var items = entries.stream()
+                .map(LedgerService::mapToDto)
+                .toList();
+
+        return new Chunk(items, last.getEntryDateTime(), last.getEntryId().toString());
+    }
+
+    private void write(Writer writer, StatementExportFormat format, StatementItemDto item) throws IOException {
+
+        if (format == StatementExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(item));
+            writer.write('\n');
+            return;
+        }
+
+        writer.write(csv(item.statementId()));
+        writer.write(',');
+        writer.write(csv(item.type()));
+        writer.write(',');
+        writer.write(csv(item.literal()));
+        writer.write(',');
+        writer.write(item.value().toPlainString());
+        writer.write(',');
+        writer.write(item.dateTime().toString());
+        writer.write(',');
+        writer.write(item.operation().name());
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record Chunk(List<StatementItemDto> items, LocalDateTime lastDateTime, String lastId) {
+    }
+}
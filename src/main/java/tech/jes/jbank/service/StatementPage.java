@@ -0,0 +1,9 @@
+package tech.jes.jbank.service;
+
+import tech.jes.jbank.controller.dto.PaginationDto;
+import tech.jes.jbank.controller.dto.StatementItemDto;
+
+import java.util.List;
+
+record StatementPage(List<StatementItemDto> statements, PaginationDto pagination) {
+}
@@ -1,61 +1,244 @@
 package tech.jes.jbank.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jes.jbank.controller.dto.BatchTransferDto;
+import tech.jes.jbank.controller.dto.BatchTransferItemDto;
+import tech.jes.jbank.controller.dto.BatchTransferResultDto;
+import tech.jes.jbank.controller.dto.BatchTransferStatus;
 import tech.jes.jbank.controller.dto.TransferMoneyDto;
+import tech.jes.jbank.entities.TimeOrderedUuids;
 import tech.jes.jbank.entities.Transfer;
 import tech.jes.jbank.entities.Wallet;
 import tech.jes.jbank.exception.TransferException;
 import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.outbox.Outbox;
 import tech.jes.jbank.repository.TransferRepository;
 import tech.jes.jbank.repository.WalletRepository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
 
 @Service
 public class TransferService {
 
     private final TransferRepository transferRepository;
     private final WalletRepository walletRepository;
+    private final LedgerService ledgerService;
+    private final Outbox outbox;
+    private final MonthlySummaryService monthlySummaryService;
+    private final WalletBalanceService walletBalanceService;
+    private final ConcurrencyRetry concurrencyRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final BankingMetrics bankingMetrics;
+    private final WalletCache walletCache;
+    private final ReadYourWrites readYourWrites;
+    private final IdempotencyService idempotencyService;
 
     public TransferService(TransferRepository transferRepository,
-                           WalletRepository walletRepository) {
+                           WalletRepository walletRepository,
+                           LedgerService ledgerService,
+                           Outbox outbox,
+                           MonthlySummaryService monthlySummaryService,
+                           WalletBalanceService walletBalanceService,
+                           ConcurrencyRetry concurrencyRetry,
+                           TransactionTemplate transactionTemplate,
+                           BankingMetrics bankingMetrics,
+                           WalletCache walletCache,
+                           ReadYourWrites readYourWrites,
+                           IdempotencyService idempotencyService) {
         this.transferRepository = transferRepository;
         this.walletRepository = walletRepository;
+        this.ledgerService = ledgerService;
+        this.outbox = outbox;
+        this.monthlySummaryService = monthlySummaryService;
+        this.walletBalanceService = walletBalanceService;
+        this.concurrencyRetry = concurrencyRetry;
+        this.transactionTemplate = transactionTemplate;
+        this.bankingMetrics = bankingMetrics;
+        this.walletCache = walletCache;
+        this.readYourWrites = readYourWrites;
+        this.idempotencyService = idempotencyService;
     }
 
-    @Transactional
+    @Timed("jbank.operation")
     public void transferMoney(TransferMoneyDto dto) {
+        concurrencyRetry.run("transferMoney",
+                () -> transactionTemplate.executeWithoutResult(status -> transfer(dto)));
+    }
+
+    /**
+     * Applies every transfer of the batch in one transaction. Each wallet involved is locked
+     * once, in id order, together with the balance slots of hot wallets, and written once at commit;
+     * the transfer and ledger inserts go out
+     * as JDBC batches. An item that cannot be applied is reported and does not affect the others.
+     */
+    @Timed("jbank.operation")
+    public BatchTransferResultDto transferMoneyBatch(BatchTransferDto dto) {
+        return concurrencyRetry.execute("transferMoneyBatch",
+                () -> transactionTemplate.execute(status -> transferBatch(dto)));
+    }
+
+    private void transfer(TransferMoneyDto dto) {
+
+        // always touch the wallets in the byte order batches lock them in, so opposite transfers cannot deadlock
+        if (TimeOrderedUuids.BYTE_ORDER.compare(dto.sender(), dto.receiver()) <= 0) {
+            debitSender(dto);
+            creditReceiver(dto);
+        } else {
+            creditReceiver(dto);
+            debitSender(dto);
+        }
+
+        persistTransfer(
+                dto,
+                walletRepository.getReferenceById(dto.receiver()),
+                walletRepository.getReferenceById(dto.sender())
+        );
+        idempotencyService.completeInTransaction();
+    }
+
+    private BatchTransferResultDto transferBatch(BatchTransferDto dto) {
+
+        var walletIds = new HashSet<UUID>();
+        dto.transfers().forEach(item -> {
+            walletIds.add(item.sender());
+            walletIds.add(item.receiver());
+        });
+
+        var wallets = new HashMap<UUID, Wallet>();
+        walletRepository.findByWalletIdInOrderByWalletId(walletIds)
+                .forEach(wallet -> wallets.put(wallet.getWalletId(), wallet));
+        // the items below move money in request order, which is not the order single transfers lock slots in
+        walletBalanceService.lockSlots(wallets.values());
+
+        var transfers = new ArrayList<Transfer>(dto.transfers().size());
+        var items = new ArrayList<BatchTransferItemDto>(dto.transfers().size());
+
+        for (int i = 0; i < dto.transfers().size(); i++) {
+            var item = dto.transfers().get(i);
+            var sender = wallets.get(item.sender());
+            var receiver = wallets.get(item.receiver());
+
+            if (sender == null) {
+                bankingMetrics.walletNotFound("transferMoneyBatch");
+                items.add(failed(i, "sender does not exist"));
+                continue;
+            }
+
+            if (receiver == null) {
+                bankingMetrics.walletNotFound("transferMoneyBatch");
+                items.add(failed(i, "receiver does not exist"));
+                continue;
+            }
+
+            if (!debitInBatch(sender, item.value())) {
+                bankingMetrics.insufficientBalance("transferMoneyBatch");
+                items.add(failed(i,
+                        "insufficient balance. you current balance is $" + walletBalanceService.balanceOf(sender)));
+                continue;
+            }
+
+            creditInBatch(receiver, item.value());
+            transfers.add(newTransfer(item, receiver, sender));
+            items.add(new BatchTransferItemDto(i, BatchTransferStatus.SUCCEEDED, null));
+        }
+
+        transferRepository.saveAll(transfers);
+        ledgerService.recordTransfers(transfers);
+        outbox.recordTransfers(transfers);
+        monthlySummaryService.recordTransfers(transfers);
+        readYourWrites.recordAfterCommit(wallets.keySet());
+
+        // hot wallets changed through their slots or UPDATE statements, which evict them on their own
+        wallets.values()
+                .stream()
+                .filter(wallet -> !WalletBalanceService.isHot(wallet))
+                .forEach(walletCache::putAfterCommit);
 
-        var sender = walletRepository.findById(dto.sender())
-                .orElseThrow(() -> new WalletNotFoundException("sender does not exist"));
+        return new BatchTransferResultDto(
+                transfers.size(),
+                items.size() - transfers.size(),
+                items
+        );
+    }
+
+    // plain wallets are locked and change in memory; hot wallets go straight to their slots
+    private boolean debitInBatch(Wallet sender, BigDecimal value) {
+
+        if (WalletBalanceService.isHot(sender)) {
+            return walletBalanceService.debitSlots(sender, value);
+        }
+
+        if (sender.getBalance().compareTo(value) < 0) {
+            return false;
+        }
 
+        sender.setBalance(sender.getBalance().subtract(value));
+        return true;
+    }
 
-        var receiver = walletRepository.findById(dto.receiver())
-                .orElseThrow(() -> new WalletNotFoundException("receiver does not exist"));
+    private void creditInBatch(Wallet receiver, BigDecimal value) {
 
-        if (sender.getBalance().compareTo(dto.value()) == -1) {
-            throw new TransferException("insufficient balance. you current balance is $" + sender.getBalance());
+        if (WalletBalanceService.isHot(receiver)) {
+            walletBalanceService.creditSlots(receiver, value);
+        } else {
+            receiver.setBalance(receiver.getBalance().add(value));
         }
+    }
+
+    private static BatchTransferItemDto failed(int index, String reason) {
+        return new BatchTransferItemDto(index, BatchTransferStatus.FAILED, reason);
+    }
 
-        persistTransfer(dto, receiver, sender);
-        updateWallets(dto, sender, receiver);
+    private void debitSender(TransferMoneyDto dto) {
+
+        switch (walletBalanceService.debit(dto.sender(), dto.value())) {
+            case DEBITED -> {
+            }
+            case WALLET_NOT_FOUND -> {
+                bankingMetrics.walletNotFound("transferMoney");
+                throw new WalletNotFoundException("sender does not exist");
+            }
+            case INSUFFICIENT_BALANCE -> {
+                bankingMetrics.insufficientBalance("transferMoney");
+                var sender = walletRepository.getReferenceById(dto.sender());
+                throw new TransferException(
+                        "insufficient balance. you current balance is $" + walletBalanceService.balanceOf(sender));
+            }
+        }
     }
 
-    private void updateWallets(TransferMoneyDto dto, Wallet sender, Wallet receiver) {
-        sender.setBalance(sender.getBalance().subtract(dto.value()));
-        receiver.setBalance(receiver.getBalance().add(dto.value()));
-        walletRepository.save(sender);
-        walletRepository.save(receiver);
+    private void creditReceiver(TransferMoneyDto dto) {
+
+        if (!walletBalanceService.credit(dto.receiver(), dto.value())) {
+            bankingMetrics.walletNotFound("transferMoney");
+            throw new WalletNotFoundException("receiver does not exist");
+        }
     }
 
     private void persistTransfer(TransferMoneyDto dto, Wallet receiver, Wallet sender) {
+        var transfer = newTransfer(dto, receiver, sender);
+
+        transferRepository.save(transfer);
+        ledgerService.recordTransfer(transfer);
+        outbox.recordTransfer(transfer);
+        monthlySummaryService.recordTransfer(transfer);
+        readYourWrites.recordAfterCommit(List.of(dto.sender(), dto.receiver()));
+    }
+
+    private static Transfer newTransfer(TransferMoneyDto dto, Wallet receiver, Wallet sender) {
         var transfer = new Transfer();
         transfer.setReceiver(receiver);
         transfer.setSender(sender);
         transfer.setTransferValue(dto.value());
         transfer.setTransferDateTime(LocalDateTime.now());
-
-        transferRepository.save(transfer);
+        return transfer;
     }
 }
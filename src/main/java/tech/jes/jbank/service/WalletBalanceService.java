@@ -0,0 +1,239 @@
+package tech.jes.jbank.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jes.jbank.entities.TimeOrderedUuids;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.entities.WalletBalanceSlot;
+import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.repository.WalletBalanceSlotRepository;
+import tech.jes.jbank.repository.WalletRepository;
+import tech.jes.jbank.repository.dto.SlotBalanceView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Moves money in and out of wallets, whether the balance lives on the wallet row or,
+ * for hot wallets, is split across {@code balanceSlots} rows of tb_wallet_balance_slots.
+ * <p>
+ * Credits to a hot wallet land on a random slot, so concurrent credits lock different rows.
+ * Debits take the first slot holding enough funds and, failing that, lock every slot and
+ * drain them in order. Every method must run inside the caller's transaction.
+ */
+@Service
+public class WalletBalanceService {
+
+    public enum DebitResult {
+        DEBITED, INSUFFICIENT_BALANCE, WALLET_NOT_FOUND
+    }
+
+    private final WalletRepository walletRepository;
+    private final WalletBalanceSlotRepository walletBalanceSlotRepository;
+    private final WalletCache walletCache;
+
+    public WalletBalanceService(WalletRepository walletRepository,
+                                WalletBalanceSlotRepository walletBalanceSlotRepository,
+                                WalletCache walletCache) {
+        this.walletRepository = walletRepository;
+        this.walletBalanceSlotRepository = walletBalanceSlotRepository;
+        this.walletCache = walletCache;
+    }
+
+    public static boolean isHot(Wallet wallet) {
+        return wallet.getBalanceSlots() > 0;
+    }
+
+    public BigDecimal balanceOf(Wallet wallet) {
+        return isHot(wallet) ?
+                walletBalanceSlotRepository.sumBalance(wallet.getWalletId()) :
+                wallet.getBalance();
+    }
+
+    public BigDecimal balanceOf(WalletSnapshot wallet) {
+        return wallet.isHot() ?
+                walletBalanceSlotRepository.sumBalance(wallet.walletId()) :
+                wallet.balance();
+    }
+
+    /**
+     * @return false when the wallet does not exist
+     */
+    public boolean credit(UUID walletId, BigDecimal value) {
+
+        if (creditRow(walletId, value)) {
+            return true;
+        }
+
+        var wallet = walletRepository.findById(walletId);
+
+        if (wallet.isEmpty()) {
+            return false;
+        }
+
+        if (!isHot(wallet.get())) {
+            return creditRow(walletId, value);
+        }
+
+        creditSlots(wallet.get(), value);
+        return true;
+    }
+
+    public DebitResult debit(UUID walletId, BigDecimal value) {
+
+        if (debitRow(walletId, value)) {
+            return DebitResult.DEBITED;
+        }
+
+        var wallet = walletRepository.findById(walletId);
+
+        if (wallet.isEmpty()) {
+            return DebitResult.WALLET_NOT_FOUND;
+        }
+
+        // the wallet may have stopped being hot between the update and the read
+        var debited = isHot(wallet.get()) ?
+                debitSlots(wallet.get(), value) :
+                debitRow(walletId, value);
+
+        return debited ? DebitResult.DEBITED : DebitResult.INSUFFICIENT_BALANCE;
+    }
+
+    /**
+     * Locks every balance slot of the hot {@code wallets}, in wallet id byte order. A batch that then moves money
+     * in request order only touches slots it already holds, so it cannot take two wallets' slots in the order
+     * a single transfer reverses.
+     */
+    public void lockSlots(Collection<Wallet> wallets) {
+        wallets.stream()
+                .filter(WalletBalanceService::isHot)
+                .map(Wallet::getWalletId)
+                .sorted(TimeOrderedUuids.BYTE_ORDER)
+                .forEach(walletBalanceSlotRepository::lockBalances);
+    }
+
+    public void creditSlots(Wallet wallet, BigDecimal value) {
+
+        var walletId = wallet.getWalletId();
+        var slot = ThreadLocalRandom.current().nextInt(wallet.getBalanceSlots());
+
+        if (walletBalanceSlotRepository.credit(walletId, slot, value) == 1 || creditRow(walletId, value)) {
+            return;
+        }
+
+        // the slot count was read before a concurrent changeBalanceSlots committed; it cannot change again
+        // while the wallet row is locked
+        var slots = walletRepository.lockBalanceSlots(walletId)
+                .orElseThrow(() -> new WalletNotFoundException("there is no wallet with this id"));
+
+        var credited = slots == 0 ?
+                creditRow(walletId, value) :
+                walletBalanceSlotRepository.credit(walletId, ThreadLocalRandom.current().nextInt(slots), value) == 1;
+
+        if (!credited) {
+            throw new IllegalStateException("balance slots of wallet " + walletId + " changed while locked");
+        }
+    }
+
+    public boolean debitSlots(Wallet wallet, BigDecimal value) {
+
+        var walletId = wallet.getWalletId();
+
+        for (int slot = 0; slot < wallet.getBalanceSlots(); slot++) {
+            if (walletBalanceSlotRepository.debit(walletId, slot, value) == 1) {
+                return true;
+            }
+        }
+
+        var slots = walletBalanceSlotRepository.lockBalances(walletId);
+
+        if (slots.isEmpty()) {
+            return debitRow(walletId, value);
+        }
+
+        var total = slots.stream()
+                .map(SlotBalanceView::balance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        if (total.compareTo(value) < 0) {
+            return false;
+        }
+
+        // drained with the same UPDATE as above, so no stale entity state is ever written back
+        var remaining = value;
+        for (var slot : slots) {
+            var taken = slot.balance().min(remaining);
+            if (taken.signum() > 0) {
+                walletBalanceSlotRepository.debit(walletId, slot.slot(), taken);
+                remaining = remaining.subtract(taken);
+            }
+
+            if (remaining.signum() == 0) {
+                break;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Spreads the wallet balance over {@code slots} rows, or folds it back into the wallet row
+     * when {@code slots} is zero. The whole balance starts on slot 0.
+     */
+    @Transactional
+    public void changeBalanceSlots(UUID walletId, int slots) {
+
+        var wallet = walletRepository.findByWalletIdInOrderByWalletId(List.of(walletId))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new WalletNotFoundException("there is no wallet with this id"));
+
+        var current = walletBalanceSlotRepository.lockSlots(walletId);
+
+        var balance = current.stream()
+                .map(WalletBalanceSlot::getBalance)
+                .reduce(wallet.getBalance(), BigDecimal::add);
+
+        var kept = new ArrayList<WalletBalanceSlot>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            var balanceSlot = slot < current.size() ?
+                    current.get(slot) :
+                    new WalletBalanceSlot(walletId, slot, BigDecimal.ZERO);
+
+            balanceSlot.setBalance(slot == 0 ? balance : BigDecimal.ZERO);
+            kept.add(balanceSlot);
+        }
+
+        if (current.size() > slots) {
+            walletBalanceSlotRepository.deleteAll(current.subList(slots, current.size()));
+        }
+        walletBalanceSlotRepository.saveAll(kept);
+
+        wallet.setBalance(slots == 0 ? balance : BigDecimal.ZERO);
+        wallet.setBalanceSlots(slots);
+        walletCache.putAfterCommit(wallet);
+    }
+
+    // the UPDATE bumps the row version, so the cached snapshot is dropped rather than patched
+    private boolean creditRow(UUID walletId, BigDecimal value) {
+
+        if (walletRepository.credit(walletId, value) == 1) {
+            walletCache.evictAfterCommit(walletId);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean debitRow(UUID walletId, BigDecimal value) {
+
+        if (walletRepository.debit(walletId, value) == 1) {
+            walletCache.evictAfterCommit(walletId);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,121 @@
+package tech.jes.jbank.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.jes.jbank.config.WalletCacheProperties;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded in-process cache of {@link WalletSnapshot}s, for reads that only need the wallet header.
+ * <p>
+ * Writers refresh or evict an entry once their transaction commits, never before, so a rolled back change is
+ * never served. A snapshot only replaces one with a lower or equal version.
+ * <p>
+ * Misses are loaded outside the cache, on the caller's own connection, so a read-only transaction keeps its replica
+ * and no cache lock is held across a database round trip. A load only fills the entry if no eviction of a key in
+ * its stripe happened since it started, so an eviction cannot be undone by a slower load that read the row before
+ * the commit. Wallets written within the read-your-writes window are read from the primary by the callers, so a
+ * miss right after an eviction does not cache a replica's older row.
+ * <p>
+ * The cache is per instance and eventually consistent: only writes made by this instance refresh or evict it,
+ * so changes made by other instances, or outside the application, show up once the entry expires after
+ * {@code jbank.wallet-cache.ttl}. Hit and miss counts are published as {@code cache.gets} with
+ * {@code cache=wallets}.
+ */
+@Component
+public class WalletCache {
+
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final WalletRepository walletRepository;
+    private final Cache<UUID, WalletSnapshot> snapshots;
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+
+    public WalletCache(WalletRepository walletRepository,
+                       WalletCacheProperties walletCacheProperties,
+                       MeterRegistry meterRegistry) {
+        this.walletRepository = walletRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(walletCacheProperties.maxSize())
+                .expireAfterWrite(walletCacheProperties.ttl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "wallets");
+    }
+
+    public Optional<WalletSnapshot> find(UUID walletId) {
+        var cached = snapshots.getIfPresent(walletId);
+
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        var stripe = stripeOf(walletId);
+        var evictionsBefore = evictions.get(stripe);
+        var loaded = walletRepository.findById(walletId).map(WalletSnapshot::of);
+
+        loaded.ifPresent(snapshot -> snapshots.asMap().compute(walletId, (id, current) ->
+                evictions.get(stripe) != evictionsBefore ? current : newer(current, snapshot)));
+        return loaded;
+    }
+
+    public void put(Wallet wallet) {
+        var snapshot = WalletSnapshot.of(wallet);
+
+        snapshots.asMap().compute(snapshot.walletId(), (id, cached) -> newer(cached, snapshot));
+    }
+
+    /**
+     * Caches the state the wallet entity has once the current transaction commits, version included.
+     */
+    public void putAfterCommit(Wallet wallet) {
+        afterCommit(() -> put(wallet));
+    }
+
+    /**
+     * For changes made with UPDATE statements, whose resulting row the caller does not hold.
+     */
+    public void evictAfterCommit(UUID walletId) {
+        afterCommit(() -> evict(walletId));
+    }
+
+    // counted before the entry goes, so a load that started earlier sees it when it tries to store its row
+    private void evict(UUID walletId) {
+        evictions.incrementAndGet(stripeOf(walletId));
+        snapshots.invalidate(walletId);
+    }
+
+    private static WalletSnapshot newer(WalletSnapshot cached, WalletSnapshot snapshot) {
+        return cached == null || cached.version() <= snapshot.version() ? snapshot : cached;
+    }
+
+    private static int stripeOf(UUID walletId) {
+        return (walletId.hashCode() & Integer.MAX_VALUE) % EVICTION_STRIPES;
+    }
+
+    private static void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,198 @@
+package tech.jes.jbank.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.jes.jbank.config.WalletFilterProperties;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Remembers every CPF and e-mail in tb_wallets in a {@link CountingBloomFilter}, so creating a wallet for a new
+ * customer can skip the {@code findByCpfOrEmail} lookup. A "maybe" still runs the lookup, and the unique
+ * constraints on tb_wallets remain the final guard, so a stale filter costs a query, never a duplicate.
+ * <p>
+ * Built on startup by paging through tb_wallets; until then every creation runs the lookup. Wallets created
+ * while it is being built are added to the new filter too. Publishes:
+ * <ul>
+ *     <li>{@code jbank.wallet.filter.rebuild}: how long the last rebuild took</li>
+ *     <li>{@code jbank.wallet.filter.checks}: {@code skipped} lookups, and lookups that found a wallet
+ *     ({@code confirmed}) or nothing ({@code false_positive})</li>
+ *     <li>{@code jbank.wallet.filter.keys} and {@code jbank.wallet.filter.expected.fpp}: keys held and the
+ *     false-positive rate expected for them</li>
+ * </ul>
+ */
+@Component
+public class WalletIdentityFilter {
+
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final Logger logger = LoggerFactory.getLogger(WalletIdentityFilter.class);
+
+    private final WalletRepository walletRepository;
+    private final WalletFilterProperties walletFilterProperties;
+
+    private final Timer rebuildTimer;
+    private final Counter skipped;
+    private final Counter confirmed;
+    private final Counter falsePositive;
+
+    private volatile CountingBloomFilter filter;
+    private volatile CountingBloomFilter building;
+
+    public WalletIdentityFilter(WalletRepository walletRepository,
+                                WalletFilterProperties walletFilterProperties,
+                                MeterRegistry meterRegistry) {
+        this.walletRepository = walletRepository;
+        this.walletFilterProperties = walletFilterProperties;
+
+        this.rebuildTimer = meterRegistry.timer("jbank.wallet.filter.rebuild");
+        this.skipped = meterRegistry.counter("jbank.wallet.filter.checks", "result", "skipped");
+        this.confirmed = meterRegistry.counter("jbank.wallet.filter.checks", "result", "confirmed");
+        this.falsePositive = meterRegistry.counter("jbank.wallet.filter.checks", "result", "false_positive");
+
+        Gauge.builder("jbank.wallet.filter.keys", this, f -> f.filter == null ? 0 : f.filter.size())
+                .register(meterRegistry);
+        Gauge.builder("jbank.wallet.filter.expected.fpp", this,
+                        f -> f.filter == null ? Double.NaN : f.filter.expectedFalsePositiveRate())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false only when neither the CPF nor the e-mail belongs to a wallet
+     */
+    public boolean mightExist(String cpf, String email) {
+        var current = filter;
+
+        if (current == null) {
+            return true;
+        }
+
+        if (current.mightContain(cpfKey(cpf)) || current.mightContain(emailKey(email))) {
+            return true;
+        }
+
+        skipped.increment();
+        return false;
+    }
+
+    /**
+     * Reports what the lookup that followed a "maybe" found.
+     */
+    public void recordLookup(boolean found) {
+        if (filter != null) {
+            (found ? confirmed : falsePositive).increment();
+        }
+    }
+
+    public void add(String cpf, String email) {
+        forEachFilter(f -> {
+            f.add(cpfKey(cpf));
+            f.add(emailKey(email));
+        });
+    }
+
+    public void removeAfterCommit(String cpf, String email) {
+        Runnable remove = () -> forEachFilter(f -> {
+            f.remove(cpfKey(cpf));
+            f.remove(emailKey(email));
+        });
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove.run();
+            }
+        });
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (walletFilterProperties.enabled()) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        var start = System.nanoTime();
+        var wallets = walletRepository.count();
+
+        var next = new CountingBloomFilter(
+                2 * Math.max(walletFilterProperties.expectedWallets(), 2 * wallets),
+                walletFilterProperties.falsePositiveProbability()
+        );
+
+        // from here on, wallets created concurrently reach the new filter even if the scan already passed them
+        building = next;
+
+        var after = FIRST;
+        var limit = Limit.of(walletFilterProperties.rebuildBatchSize());
+        long loaded = 0;
+
+        while (true) {
+            var page = walletRepository.findIdentitiesAfter(after, limit);
+
+            for (var wallet : page) {
+                next.add(cpfKey(wallet.cpf()));
+                next.add(emailKey(wallet.email()));
+            }
+            loaded += page.size();
+
+            if (page.size() < walletFilterProperties.rebuildBatchSize()) {
+                break;
+            }
+            after = page.getLast().walletId();
+        }
+
+        filter = next;
+        building = null;
+
+        var elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        logger.info("Wallet filter rebuilt - Wallets: {}, ExpectedFpp: {}, ElapsedMs: {}",
+                loaded,
+                String.format("%.5f", next.expectedFalsePositiveRate()),
+                elapsed / 1_000_000
+        );
+    }
+
+    private void forEachFilter(Consumer<CountingBloomFilter> action) {
+        var current = filter;
+        var next = building;
+
+        if (current != null) {
+            action.accept(current);
+        }
+        if (next != null && next != current) {
+            action.accept(next);
+        }
+    }
+
+    private static String cpfKey(String cpf) {
+        return "cpf:" + cpf;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email;
+    }
+}
@@ -1,10 +1,15 @@
 package tech.jes.jbank.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jes.jbank.config.LedgerProperties;
+import tech.jes.jbank.controller.dto.BalanceSlotsDto;
 import tech.jes.jbank.controller.dto.CreateWalletDto;
 import tech.jes.jbank.controller.dto.DepositMoneyDto;
 import tech.jes.jbank.controller.dto.PaginationDto;
@@ -18,12 +23,14 @@ import tech.jes.jbank.exception.DeleteWalletException;
 import tech.jes.jbank.exception.StatementException;
 import tech.jes.jbank.exception.WalletDataAlreadyExistsException;
 import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.outbox.Outbox;
 import tech.jes.jbank.repository.DepositRepository;
 import tech.jes.jbank.repository.WalletRepository;
 import tech.jes.jbank.repository.dto.StatementView;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -31,20 +38,64 @@ public class WalletService {
 
     private final WalletRepository walletRepository;
     private final DepositRepository depositRepository;
+    private final LedgerService ledgerService;
+    private final Outbox outbox;
+    private final MonthlySummaryService monthlySummaryService;
+    private final LedgerProperties ledgerProperties;
+    private final WalletBalanceService walletBalanceService;
+    private final ConcurrencyRetry concurrencyRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final BankingMetrics bankingMetrics;
+    private final WalletCache walletCache;
+    private final WalletIdentityFilter walletIdentityFilter;
+    private final ReadYourWrites readYourWrites;
+    private final DepositBatcher depositBatcher;
+    private final IdempotencyService idempotencyService;
 
     public WalletService(WalletRepository walletRepository,
-                         DepositRepository depositRepository) {
+                         DepositRepository depositRepository,
+                         LedgerService ledgerService,
+                         Outbox outbox,
+                         MonthlySummaryService monthlySummaryService,
+                         LedgerProperties ledgerProperties,
+                         WalletBalanceService walletBalanceService,
+                         ConcurrencyRetry concurrencyRetry,
+                         TransactionTemplate transactionTemplate,
+                         BankingMetrics bankingMetrics,
+                         WalletCache walletCache,
+                         WalletIdentityFilter walletIdentityFilter,
+                         ReadYourWrites readYourWrites,
+                         DepositBatcher depositBatcher,
+                         IdempotencyService idempotencyService) {
         this.walletRepository = walletRepository;
         this.depositRepository = depositRepository;
+        this.ledgerService = ledgerService;
+        this.outbox = outbox;
+        this.monthlySummaryService = monthlySummaryService;
+        this.ledgerProperties = ledgerProperties;
+        this.walletBalanceService = walletBalanceService;
+        this.concurrencyRetry = concurrencyRetry;
+        this.transactionTemplate = transactionTemplate;
+        this.bankingMetrics = bankingMetrics;
+        this.walletCache = walletCache;
+        this.walletIdentityFilter = walletIdentityFilter;
+        this.readYourWrites = readYourWrites;
+        this.depositBatcher = depositBatcher;
+        this.idempotencyService = idempotencyService;
     }
 
+    @Timed("jbank.operation")
     public Wallet createWallet(CreateWalletDto dto) {
 
-        var walletDb = walletRepository.findByCpfOrEmail(dto.cpf(), dto.email());
+        // most sign-ups are new customers: skip the lookup when the filter rules both keys out
+        if (walletIdentityFilter.mightExist(dto.cpf(), dto.email())) {
+            var walletDb = walletRepository.findByCpfOrEmail(dto.cpf(), dto.email());
+            walletIdentityFilter.recordLookup(walletDb.isPresent());
 
-        if (walletDb.isPresent()) {
-            throw new WalletDataAlreadyExistsException("cpf or email already exists");
+            if (walletDb.isPresent()) {
+                throw new WalletDataAlreadyExistsException("cpf or email already exists");
 
+            }
         }
 
         var wallet = new Wallet();
@@ -53,32 +104,73 @@ public class WalletService {
         wallet.setCpf(dto.cpf());
         wallet.setEmail(dto.email());
 
-        return walletRepository.save(wallet);
+        Wallet saved;
+        try {
+            saved = walletRepository.save(wallet);
+        } catch (DataIntegrityViolationException e) {
+            throw new WalletDataAlreadyExistsException("cpf or email already exists");
+        }
+
+        walletIdentityFilter.add(dto.cpf(), dto.email());
+        return saved;
     }
 
+    @Timed("jbank.operation")
+    @Transactional
     public boolean deleteWallet(UUID walletId) {
 
         var wallet = walletRepository.findById(walletId);
 
         if (wallet.isPresent()) {
 
-            if (wallet.get().getBalance().compareTo(BigDecimal.ZERO) != 0) {
+            var balance = walletBalanceService.balanceOf(wallet.get());
+
+            if (balance.compareTo(BigDecimal.ZERO) != 0) {
                 throw new DeleteWalletException(
-                        "The balance is not zero. The current amount is $" + wallet.get().getBalance());
+                        "The balance is not zero. The current amount is $" + balance);
+            }
+
+            if (WalletBalanceService.isHot(wallet.get())) {
+                walletBalanceService.changeBalanceSlots(walletId, 0);
             }
             walletRepository.deleteById(walletId);
+            walletCache.evictAfterCommit(walletId);
+            readYourWrites.recordAfterCommit(walletId);
+            walletIdentityFilter.removeAfterCommit(wallet.get().getCpf(), wallet.get().getEmail());
 
+        } else {
+            bankingMetrics.walletNotFound("deleteWallet");
         }
 
         return wallet.isPresent();
     }
 
-    @Transactional
+    @Timed("jbank.operation")
     public void depositMoney(UUID walletId, @Valid DepositMoneyDto dto, String ipAddress) {
+        if (depositBatcher.deposit(walletId, dto.value(), ipAddress)) {
+            return;
+        }
+
+        concurrencyRetry.run("depositMoney",
+                () -> transactionTemplate.executeWithoutResult(status -> deposit(walletId, dto, ipAddress)));
+    }
+
+    private void deposit(UUID walletId, DepositMoneyDto dto, String ipAddress) {
 
         var wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new WalletNotFoundException("there is no wallet with this id"));
+                .orElseThrow(() -> walletNotFound("depositMoney"));
+
 
+        // the balance changes first, so the wallet row or slot is locked before the monthly summary row,
+        // in the order transfers take them
+        if (WalletBalanceService.isHot(wallet)) {
+            walletBalanceService.creditSlots(wallet, dto.value());
+        } else {
+            wallet.setBalance(wallet.getBalance().add(dto.value()));
+
+            walletRepository.saveAndFlush(wallet);
+            walletCache.putAfterCommit(wallet);
+        }
 
         var deposit = new Deposit();
         deposit.setWallet(wallet);
@@ -87,41 +179,159 @@ public class WalletService {
         deposit.setIpAddress(ipAddress);
 
         depositRepository.save(deposit);
+        ledgerService.recordDeposit(deposit);
+        outbox.recordDeposit(deposit);
+        monthlySummaryService.recordDeposit(deposit);
+        readYourWrites.recordAfterCommit(walletId);
+        idempotencyService.completeInTransaction();
+    }
 
-        wallet.setBalance(wallet.getBalance().add(dto.value()));
+    public void changeBalanceSlots(UUID walletId, BalanceSlotsDto dto) {
+        walletBalanceService.changeBalanceSlots(walletId, dto.slots());
+    }
 
-        walletRepository.save(wallet);
+    /**
+     * Read-only, so it is served by a replica when they are enabled, unless the wallet changed very recently.
+     */
+    @Timed("jbank.operation")
+    @Transactional(readOnly = true)
+    public StatementDto getStatements(UUID walletId,
+                                      Integer page,
+                                      Integer pageSize,
+                                      String cursor,
+                                      boolean includeTotal) {
+
+        return readYourWrites.read(walletId, () -> readStatements(walletId, page, pageSize, cursor, includeTotal));
     }
 
-    public StatementDto getStatements(UUID walletId, Integer page, Integer pageSize) {
+    private StatementDto readStatements(UUID walletId,
+                                        Integer page,
+                                        Integer pageSize,
+                                        String cursor,
+                                        boolean includeTotal) {
 
-        var wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new WalletNotFoundException("there is no wallet with this id"));
+        var wallet = walletCache.find(walletId)
+                .orElseThrow(() -> walletNotFound("getStatements"));
+
+        var statementCursor = cursor == null ? null : StatementCursor.decode(cursor);
 
-        var pageRequest = PageRequest.of(page, pageSize, Sort.Direction.DESC, "statement_date_time");
+        var statements = ledgerProperties.statementsEnabled() ?
+                ledgerService.findStatements(walletId, page, pageSize, statementCursor, includeTotal) :
+                findStatements(walletId, page, pageSize, statementCursor, includeTotal);
 
-        var statements = walletRepository.findStatements(walletId.toString(), pageRequest)
-                .map(view -> mapToDto(walletId, view));
+        bankingMetrics.statementPage(
+                ledgerProperties.statementsEnabled() ? "ledger" : "union",
+                pageSize,
+                statements.statements().size(),
+                statements.pagination().totalElements()
+        );
 
         return new StatementDto(
                 new WalletDto(
-                        wallet.getWalletId(),
-                        wallet.getCpf(),
-                        wallet.getName(),
-                        wallet.getEmail(),
-                        wallet.getBalance()
+                        wallet.walletId(),
+                        wallet.cpf(),
+                        wallet.name(),
+                        wallet.email(),
+                        walletBalanceService.balanceOf(wallet)
                 ),
-                statements.getContent(),
+                statements.statements(),
+                statements.pagination()
+        );
+    }
+
+    private WalletNotFoundException walletNotFound(String operation) {
+        bankingMetrics.walletNotFound(operation);
+        return new WalletNotFoundException("there is no wallet with this id");
+    }
+
+    private StatementPage findStatements(UUID walletId,
+                                         Integer page,
+                                         Integer pageSize,
+                                         StatementCursor cursor,
+                                         boolean includeTotal) {
+
+        if (cursor != null) {
+            return findStatementsAfter(walletId, cursor, pageSize, includeTotal);
+        }
+
+        var pageRequest = PageRequest.of(page, pageSize,
+                Sort.by(Sort.Direction.DESC, "statement_date_time", "statement_id"));
+
+        if (!includeTotal) {
+            var statements = walletRepository.findStatementSlice(walletId.toString(), pageRequest);
+
+            return new StatementPage(
+                    statements.map(view -> mapToDto(walletId, view)).getContent(),
+                    new PaginationDto(
+                            statements.getNumber(),
+                            statements.getSize(),
+                            null,
+                            null,
+                            nextCursor(statements.getContent(), statements.hasNext())
+                    )
+            );
+        }
+
+        var statements = walletRepository.findStatements(walletId.toString(), pageRequest);
+
+        return new StatementPage(
+                statements.map(view -> mapToDto(walletId, view)).getContent(),
                 new PaginationDto(
                         statements.getNumber(),
                         statements.getSize(),
                         statements.getTotalElements(),
-                        statements.getTotalPages()
+                        statements.getTotalPages(),
+                        nextCursor(statements.getContent(), statements.hasNext())
+                )
+        );
+    }
+
+    private StatementPage findStatementsAfter(UUID walletId,
+                                              StatementCursor cursor,
+                                              Integer pageSize,
+                                              boolean includeTotal) {
+
+        // one extra row tells whether there is a next page without counting the history
+        var views = walletRepository.findStatementsBefore(
+                walletId.toString(),
+                cursor.dateTime(),
+                cursor.statementId(),
+                pageSize + 1
+        );
+
+        var hasNext = views.size() > pageSize;
+        var content = hasNext ? views.subList(0, pageSize) : views;
+
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (includeTotal) {
+            totalElements = walletRepository.countStatements(walletId.toString());
+            totalPages = (int) Math.ceil((double) totalElements / pageSize);
+        }
+
+        return new StatementPage(
+                content.stream().map(view -> mapToDto(walletId, view)).toList(),
+                new PaginationDto(
+                        null,
+                        pageSize,
+                        totalElements,
+                        totalPages,
+                        nextCursor(content, hasNext)
                 )
         );
     }
 
-    private StatementItemDto mapToDto(UUID walletId, StatementView view) {
+    private static String nextCursor(List<StatementView> content, boolean hasNext) {
+        if (!hasNext || content.isEmpty()) {
+            return null;
+        }
+
+        var last = content.getLast();
+
+        return new StatementCursor(last.getStatementDateTime(), last.getStatementId()).encode();
+    }
+
+    StatementItemDto mapToDto(UUID walletId, StatementView view) {
 
         if (view.getType().equalsIgnoreCase("deposit")) {
             return mapToDeposit(view);
@@ -0,0 +1,34 @@
+package tech.jes.jbank.service;
+
+import tech.jes.jbank.entities.Wallet;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a wallet row as of {@code version}, safe to share between requests.
+ */
+public record WalletSnapshot(UUID walletId,
+                             String cpf,
+                             String name,
+                             String email,
+                             BigDecimal balance,
+                             int balanceSlots,
+                             long version) {
+
+    static WalletSnapshot of(Wallet wallet) {
+        return new WalletSnapshot(
+                wallet.getWalletId(),
+                wallet.getCpf(),
+                wallet.getName(),
+                wallet.getEmail(),
+                wallet.getBalance(),
+                wallet.getBalanceSlots(),
+                wallet.getVersion() == null ? 0 : wallet.getVersion()
+        );
+    }
+
+    public boolean isHot() {
+        return balanceSlots > 0;
+    }
+}
@@ -0,0 +1,82 @@
+package tech.jes.jbank.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.RequestTimingProperties;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Opens and closes the timing of a request, from {@code IpFilter}. While the request runs, the hooks add to its
+ * {@link RequestTimings}; the {@code Server-Timing} header is written just before the response commits, and
+ * requests over the slow threshold are copied into the {@link SlowRequestLog}.
+ */
+@Component
+public class RequestTiming {
+
+    private final RequestTimingProperties properties;
+    private final SlowRequestLog slowRequestLog;
+    private final long slowThresholdNanos;
+
+    public RequestTiming(RequestTimingProperties properties, SlowRequestLog slowRequestLog) {
+        this.properties = properties;
+        this.slowRequestLog = slowRequestLog;
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+    }
+
+    /**
+     * Starts timing the request on this thread.
+     *
+     * @return the response to pass down the chain, wrapped to add the header if enabled
+     */
+    public HttpServletResponse begin(HttpServletResponse response) {
+        if (!properties.enabled()) {
+            return response;
+        }
+
+        var timings = RequestTimings.begin();
+        return properties.header() ? new ServerTimingResponse(response, timings) : response;
+    }
+
+    /**
+     * Marks the end of the filters, from the first interceptor.
+     */
+    public void handlerStarted() {
+        RequestTimings.handOver(Stage.FILTER, Stage.HANDLER);
+    }
+
+    public void end(HttpServletRequest request, HttpServletResponse response) {
+        var timings = RequestTimings.current();
+
+        if (timings == null) {
+            return;
+        }
+
+        try {
+            var now = System.nanoTime();
+            timings.stopAt(Stage.FILTER, now);
+            timings.stopAt(Stage.HANDLER, now);
+            timings.stopAt(Stage.SERIALIZE, now);
+
+            if (response instanceof ServerTimingResponse timed) {
+                timed.writeHeader();
+            }
+
+            var total = timings.elapsed(now);
+            if (total >= slowThresholdNanos && !request.isAsyncStarted()) {
+                slowRequestLog.record(new SlowRequest(
+                        Instant.now().minusNanos(total).truncatedTo(ChronoUnit.MILLIS),
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        RequestTimings.millis(total),
+                        timings.snapshot()
+                ));
+            }
+        } finally {
+            RequestTimings.end();
+        }
+    }
+}
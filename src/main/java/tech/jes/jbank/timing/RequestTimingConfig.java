@@ -0,0 +1,46 @@
+package tech.jes.jbank.timing;
+
+import jakarta.validation.Validator;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tech.jes.jbank.config.RequestTimingProperties;
+
+/**
+ * Installs the hooks that are not Spring beans: the Hibernate session listener and the MVC validator.
+ */
+@Configuration
+public class RequestTimingConfig implements WebMvcConfigurer {
+
+    private final RequestTimingProperties properties;
+    private final ObjectProvider<Validator> validator;
+
+    public RequestTimingConfig(RequestTimingProperties properties, ObjectProvider<Validator> validator) {
+        this.properties = properties;
+        this.validator = validator;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestTimingCustomizer() {
+        return hibernateProperties -> {
+            if (properties.enabled()) {
+                hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                        TimingSessionEventListener.class.getName());
+            }
+        };
+    }
+
+    @Override
+    public org.springframework.validation.Validator getValidator() {
+        var beanValidator = validator.getIfAvailable();
+
+        if (!properties.enabled() || beanValidator == null) {
+            return null;
+        }
+        return new TimingValidator(new SpringValidatorAdapter(beanValidator));
+    }
+}
@@ -0,0 +1,174 @@
+package tech.jes.jbank.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage durations of the request running on the current thread. The hooks call the static methods, which do
+ * nothing outside a timed request. Each platform thread reuses one instance, so timing a request allocates nothing.
+ * <p>
+ * A stage is timed with {@link #start(Stage)} and {@link #stop(Stage)}; starting it again before it stops
+ * restarts it, so stages must not nest within themselves.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> REUSABLE = ThreadLocal.withInitial(RequestTimings::new);
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long[] durations = new long[Stage.ALL.length];
+    private final int[] counts = new int[Stage.ALL.length];
+    private final long[] starts = new long[Stage.ALL.length];
+
+    private long requestStart;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings begin() {
+        var timings = REUSABLE.get();
+        timings.reset(System.nanoTime());
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void start(Stage stage) {
+        var timings = CURRENT.get();
+
+        if (timings != null) {
+            timings.starts[stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public static void stop(Stage stage) {
+        var timings = CURRENT.get();
+
+        if (timings != null) {
+            timings.stopAt(stage, System.nanoTime());
+        }
+    }
+
+    /**
+     * Stops {@code from} and starts {@code to} with a single clock read.
+     */
+    public static void handOver(Stage from, Stage to) {
+        var timings = CURRENT.get();
+
+        if (timings != null) {
+            var now = System.nanoTime();
+            timings.stopAt(from, now);
+            timings.starts[to.ordinal()] = now;
+        }
+    }
+
+    /**
+     * Time since the request entered {@code IpFilter}.
+     */
+    long elapsed(long now) {
+        return now - requestStart;
+    }
+
+    long requestStart() {
+        return requestStart;
+    }
+
+    long duration(Stage stage) {
+        return durations[stage.ordinal()];
+    }
+
+    int count(Stage stage) {
+        return counts[stage.ordinal()];
+    }
+
+    boolean isRunning(Stage stage) {
+        return starts[stage.ordinal()] != 0;
+    }
+
+    void stopAt(Stage stage, long now) {
+        var i = stage.ordinal();
+
+        if (starts[i] != 0) {
+            durations[i] += now - starts[i];
+            counts[i]++;
+            starts[i] = 0;
+        }
+    }
+
+    void startAt(Stage stage, long now) {
+        starts[stage.ordinal()] = now;
+    }
+
+    /**
+     * {@code Server-Timing} value with every stage that ran, and the total so far.
+     */
+    String toServerTiming(long now) {
+        var header = new StringBuilder(160);
+
+        for (var stage : Stage.ALL) {
+            if (counts[stage.ordinal()] > 0) {
+                appendMetric(header, stage.metricName(), durations[stage.ordinal()]);
+
+                if (counts[stage.ordinal()] > 1) {
+                    header.append(";desc=\"").append(counts[stage.ordinal()]).append('"');
+                }
+                header.append(", ");
+            }
+        }
+
+        appendMetric(header, "total", elapsed(now));
+        return header.toString();
+    }
+
+    List<SlowRequest.StageTiming> snapshot() {
+        var stages = new ArrayList<SlowRequest.StageTiming>(Stage.ALL.length);
+
+        for (var stage : Stage.ALL) {
+            if (counts[stage.ordinal()] > 0) {
+                stages.add(new SlowRequest.StageTiming(
+                        stage.metricName(),
+                        millis(durations[stage.ordinal()]),
+                        counts[stage.ordinal()]
+                ));
+            }
+        }
+        return stages;
+    }
+
+    static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        // microsecond precision, without String.format
+        var micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        header.append(name).append(";dur=").append(micros / 1000).append('.');
+
+        var fraction = micros % 1000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+
+    private void reset(long now) {
+        requestStart = now;
+
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = 0;
+            counts[i] = 0;
+            starts[i] = 0;
+        }
+        starts[Stage.FILTER.ordinal()] = now;
+    }
+}
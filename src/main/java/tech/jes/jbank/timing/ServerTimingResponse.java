@@ -0,0 +1,83 @@
+package tech.jes.jbank.timing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Adds {@code Server-Timing} at the last moment headers can still change: when the body is about to be
+ * written, the buffer flushed or an error sent, or, for a response without body, when the request ends.
+ * Taking the writer or stream also ends the {@code handler} stage and starts {@code serialize}.
+ */
+class ServerTimingResponse extends HttpServletResponseWrapper {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final RequestTimings timings;
+
+    private boolean written;
+
+    ServerTimingResponse(HttpServletResponse response, RequestTimings timings) {
+        super(response);
+        this.timings = timings;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        startBody();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        startBody();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeHeader();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeHeader();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeHeader();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeHeader();
+        super.sendRedirect(location);
+    }
+
+    void writeHeader() {
+        if (written || isCommitted()) {
+            return;
+        }
+        written = true;
+        setHeader(SERVER_TIMING, timings.toServerTiming(System.nanoTime()));
+    }
+
+    private void startBody() {
+        if (written) {
+            return;
+        }
+
+        var now = System.nanoTime();
+        timings.stopAt(Stage.FILTER, now);
+        timings.stopAt(Stage.HANDLER, now);
+        writeHeader();
+        timings.startAt(Stage.SERIALIZE, now);
+    }
+}
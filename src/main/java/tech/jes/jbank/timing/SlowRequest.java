@@ -0,0 +1,15 @@
+package tech.jes.jbank.timing;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SlowRequest(Instant startedAt,
+                          String method,
+                          String path,
+                          int status,
+                          double totalMillis,
+                          List<StageTiming> stages) {
+
+    public record StageTiming(String name, double millis, int count) {
+    }
+}
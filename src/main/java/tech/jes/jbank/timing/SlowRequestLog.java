@@ -0,0 +1,47 @@
+package tech.jes.jbank.timing;
+
+import org.springframework.stereotype.Component;
+import tech.jes.jbank.config.RequestTimingProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The last {@code jbank.request-timing.slow-capacity} requests slower than {@code slow-threshold}.
+ * Recording claims a slot with one atomic increment and overwrites the oldest entry, so it never blocks.
+ */
+@Component
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<SlowRequest> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowRequestLog(RequestTimingProperties properties) {
+        this.slots = new AtomicReferenceArray<>(properties.slowCapacity());
+    }
+
+    void record(SlowRequest request) {
+        var slot = (int) (sequence.getAndIncrement() % slots.length());
+        slots.set(slot, request);
+    }
+
+    /**
+     * @return the recorded requests, newest first
+     */
+    public List<SlowRequest> recent() {
+        var next = sequence.get();
+        var size = (int) Math.min(next, slots.length());
+        var requests = new ArrayList<SlowRequest>(size);
+
+        for (long i = next - 1; i >= next - size; i--) {
+            var request = slots.get((int) (i % slots.length()));
+
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,54 @@
+package tech.jes.jbank.timing;
+
+/**
+ * Parts of a request timed by {@link RequestTimings}, named as they appear in {@code Server-Timing}.
+ * Stages overlap: {@code handler} contains the body parsing, validation and database stages,
+ * and {@code commit} contains the statements flushed at commit, which also count as {@code db}.
+ */
+public enum Stage {
+
+    /**
+     * filters and dispatch, from {@code IpFilter} to the first interceptor
+     */
+    FILTER("filter"),
+    /**
+     * from the interceptors to the first byte of the response body
+     */
+    HANDLER("handler"),
+    /**
+     * reading and deserializing the request body
+     */
+    PARSE("parse"),
+    /**
+     * bean validation of the request body
+     */
+    VALIDATION("validation"),
+    /**
+     * waiting for a pooled connection
+     */
+    POOL("pool"),
+    /**
+     * executing SQL statements and batches
+     */
+    DB("db"),
+    /**
+     * committing or rolling back, flush included
+     */
+    COMMIT("commit"),
+    /**
+     * writing the response body; only known once the response is sent, so never in the header
+     */
+    SERIALIZE("serialize");
+
+    static final Stage[] ALL = values();
+
+    private final String metricName;
+
+    Stage(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,42 @@
+package tech.jes.jbank.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Times reading and deserializing {@code @RequestBody} arguments.
+ */
+@ControllerAdvice
+public class TimingBodyAdvice extends RequestBodyAdviceAdapter {
+
+    @Override
+    public boolean supports(MethodParameter methodParameter,
+                            Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage,
+                                           MethodParameter parameter,
+                                           Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestTimings.start(Stage.PARSE);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body,
+                                HttpInputMessage inputMessage,
+                                MethodParameter parameter,
+                                Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestTimings.stop(Stage.PARSE);
+        return body;
+    }
+}
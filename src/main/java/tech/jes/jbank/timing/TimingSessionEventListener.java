@@ -0,0 +1,40 @@
+package tech.jes.jbank.timing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times connection acquisition and statement execution for the current request. Hibernate creates one per
+ * session, through {@code hibernate.session.events.auto}, and calls it on the thread using the session.
+ */
+public class TimingSessionEventListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        RequestTimings.start(Stage.POOL);
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTimings.stop(Stage.POOL);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestTimings.start(Stage.DB);
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.stop(Stage.DB);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        RequestTimings.start(Stage.DB);
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.stop(Stage.DB);
+    }
+}
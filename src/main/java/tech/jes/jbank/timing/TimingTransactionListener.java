@@ -0,0 +1,33 @@
+package tech.jes.jbank.timing;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Times the commit or rollback of each transaction, flush included. Registered on the transaction manager by
+ * Spring Boot.
+ */
+@Component
+public class TimingTransactionListener implements TransactionExecutionListener {
+
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        RequestTimings.start(Stage.COMMIT);
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        RequestTimings.stop(Stage.COMMIT);
+    }
+
+    @Override
+    public void beforeRollback(TransactionExecution transaction) {
+        RequestTimings.start(Stage.COMMIT);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        RequestTimings.stop(Stage.COMMIT);
+    }
+}
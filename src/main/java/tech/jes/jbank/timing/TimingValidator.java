@@ -0,0 +1,46 @@
+package tech.jes.jbank.timing;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Times bean validation of request bodies, around the validator Spring MVC would use anyway.
+ */
+class TimingValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+
+    TimingValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        RequestTimings.start(Stage.VALIDATION);
+        try {
+            delegate.validate(target, errors);
+        } finally {
+            RequestTimings.stop(Stage.VALIDATION);
+        }
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        RequestTimings.start(Stage.VALIDATION);
+        try {
+            delegate.validate(target, errors, validationHints);
+        } finally {
+            RequestTimings.stop(Stage.VALIDATION);
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return delegate.unwrap(type);
+    }
+}
@@ -0,0 +1,35 @@
+-- Schema as created by ddl-auto=update before migrations were introduced.
+-- Existing databases skip this script through spring.flyway.baseline-on-migrate.
+
+CREATE TABLE tb_wallets (
+    wallet_id BINARY(16) NOT NULL,
+    cpf VARCHAR(255),
+    email VARCHAR(255),
+    name VARCHAR(255),
+    balance DECIMAL(38, 2),
+    version BIGINT,
+    PRIMARY KEY (wallet_id),
+    CONSTRAINT uk_wallets_cpf UNIQUE (cpf),
+    CONSTRAINT uk_wallets_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE tb_transfer (
+    transfer_id BINARY(16) NOT NULL,
+    wallet_receiver_id BINARY(16),
+    wallet_sender_id BINARY(16),
+    transfer_value DECIMAL(38, 2),
+    transfer_date_time DATETIME(6),
+    PRIMARY KEY (transfer_id),
+    CONSTRAINT fk_transfer_receiver FOREIGN KEY (wallet_receiver_id) REFERENCES tb_wallets (wallet_id),
+    CONSTRAINT fk_transfer_sender FOREIGN KEY (wallet_sender_id) REFERENCES tb_wallets (wallet_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tb_deposits (
+    deposit_id BINARY(16) NOT NULL,
+    wallet_id BINARY(16),
+    deposit_value DECIMAL(38, 2),
+    deposit_date_time DATETIME(6),
+    ip_address VARCHAR(255),
+    PRIMARY KEY (deposit_id),
+    CONSTRAINT fk_deposits_wallet FOREIGN KEY (wallet_id) REFERENCES tb_wallets (wallet_id)
+) ENGINE = InnoDB;
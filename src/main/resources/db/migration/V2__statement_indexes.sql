@@ -0,0 +1,7 @@
+-- Every statement branch filters by one wallet column and orders by date time; InnoDB appends the
+-- primary key to secondary indexes, so these also cover the (date time, id) keyset tiebreak.
+
+CREATE INDEX idx_transfer_sender_date_time ON tb_transfer (wallet_sender_id, transfer_date_time);
+CREATE INDEX idx_transfer_receiver_date_time ON tb_transfer (wallet_receiver_id, transfer_date_time);
+CREATE INDEX idx_deposits_wallet_date_time ON tb_deposits (wallet_id, deposit_date_time);
+
@@ -0,0 +1,8 @@
+ALTER TABLE tb_wallets ADD COLUMN balance_slots INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE tb_wallet_balance_slots (
+    wallet_id BINARY(16) NOT NULL,
+    slot INTEGER NOT NULL,
+    balance DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (wallet_id, slot)
+) ENGINE = InnoDB;
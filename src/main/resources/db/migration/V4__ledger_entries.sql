@@ -0,0 +1,14 @@
+CREATE TABLE tb_ledger_entries (
+    entry_id BINARY(16) NOT NULL,
+    wallet_id BINARY(16) NOT NULL,
+    source_id BINARY(16) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    operation ENUM ('CREDIT', 'DEBIT') NOT NULL,
+    amount DECIMAL(38, 2) NOT NULL,
+    counterparty_wallet_id BINARY(16),
+    entry_date_time DATETIME(6) NOT NULL,
+    PRIMARY KEY (entry_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_ledger_wallet_date_time ON tb_ledger_entries (wallet_id, entry_date_time, entry_id);
+CREATE UNIQUE INDEX idx_ledger_source ON tb_ledger_entries (source_id, operation);
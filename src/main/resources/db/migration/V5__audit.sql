@@ -0,0 +1,11 @@
+CREATE TABLE tb_audit (
+    audit_id BIGINT NOT NULL AUTO_INCREMENT,
+    occurred_at DATETIME(6) NOT NULL,
+    method VARCHAR(10) NOT NULL,
+    url VARCHAR(2048) NOT NULL,
+    status_code INTEGER NOT NULL,
+    ip_address VARCHAR(255),
+    PRIMARY KEY (audit_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_audit_occurred_at ON tb_audit (occurred_at);
@@ -0,0 +1,13 @@
+CREATE TABLE tb_idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    status ENUM ('COMPLETED', 'IN_PROGRESS') NOT NULL,
+    response_status INTEGER,
+    problem_title VARCHAR(255),
+    problem_detail VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    PRIMARY KEY (idempotency_key)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_idempotency_created_at ON tb_idempotency_keys (created_at);
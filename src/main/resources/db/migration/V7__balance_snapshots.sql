@@ -0,0 +1,7 @@
+-- wallet first, so the latest snapshot of a wallet up to an instant is a single index seek
+CREATE TABLE tb_balance_snapshots (
+    wallet_id BINARY(16) NOT NULL,
+    snapshot_at DATETIME(6) NOT NULL,
+    balance DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (wallet_id, snapshot_at)
+) ENGINE = InnoDB;
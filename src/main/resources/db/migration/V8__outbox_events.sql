@@ -0,0 +1,11 @@
+-- UUIDv7 keys, so the publisher reads the oldest events from the start of the primary key
+CREATE TABLE tb_outbox_events (
+    event_id BINARY(16) NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    source_id BINARY(16) NOT NULL,
+    wallet_id BINARY(16) NOT NULL,
+    counterparty_wallet_id BINARY(16),
+    amount DECIMAL(38, 2) NOT NULL,
+    occurred_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (event_id)
+) ENGINE = InnoDB;
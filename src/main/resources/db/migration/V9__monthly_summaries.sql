@@ -0,0 +1,12 @@
+-- wallet and month first, so a range of months of a wallet is a single index range scan.
+-- Plain wallets keep one row per month in slot 0; hot wallets spread their updates over their balance slots.
+CREATE TABLE tb_monthly_summaries (
+    wallet_id BINARY(16) NOT NULL,
+    summary_month DATE NOT NULL,
+    slot INTEGER NOT NULL,
+    credits DECIMAL(38, 2) NOT NULL,
+    credit_count BIGINT NOT NULL,
+    debits DECIMAL(38, 2) NOT NULL,
+    debit_count BIGINT NOT NULL,
+    PRIMARY KEY (wallet_id, summary_month, slot)
+) ENGINE = InnoDB;
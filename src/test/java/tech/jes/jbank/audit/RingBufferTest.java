@@ -0,0 +1,71 @@
+package tech.jes.jbank.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void rejectsOffersWhenFullAndDrainsInOrder() {
+        var buffer = new RingBuffer<Integer>(3);
+
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        var drained = new ArrayList<Integer>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertTrue(buffer.offer(4));
+        assertEquals(2, buffer.drainTo(drained, 10));
+
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void deliversEveryEventFromConcurrentProducersOnce() throws InterruptedException {
+        var buffer = new RingBuffer<Integer>(64);
+        var producers = 8;
+        var perProducer = 10_000;
+        var start = new CountDownLatch(1);
+
+        try (var executor = Executors.newFixedThreadPool(producers)) {
+            for (int p = 0; p < producers; p++) {
+                var first = p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            start.countDown();
+            var received = new HashSet<Integer>();
+            var batch = new ArrayList<Integer>();
+            while (received.size() < producers * perProducer) {
+                buffer.drainTo(batch, 16);
+                for (var element : batch) {
+                    assertTrue(received.add(element), "duplicate " + element);
+                }
+                batch.clear();
+            }
+        }
+
+        assertEquals(0, buffer.size());
+    }
+}
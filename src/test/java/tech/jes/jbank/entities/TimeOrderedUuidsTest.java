@@ -0,0 +1,55 @@
+package tech.jes.jbank.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidsTest {
+
+    @Test
+    void setsVersionSevenAndTheRfcVariant() {
+        var uuid = new TimeOrderedUuids().next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void carriesTheClockInTheFirst48Bits() {
+        var uuids = new TimeOrderedUuids(() -> 1_700_000_000_123L);
+
+        assertEquals(1_700_000_000_123L, TimeOrderedUuids.timestampOf(uuids.next()));
+    }
+
+    @Test
+    void increasesWithinTheSameMillisecondAndWhenTheClockGoesBack() {
+        var clock = new AtomicLong(1_700_000_000_000L);
+        var uuids = new TimeOrderedUuids(clock::get);
+
+        UUID previous = uuids.next();
+        for (int i = 0; i < 20_000; i++) {
+            if (i == 10_000) {
+                clock.addAndGet(-5_000);
+            }
+            var next = uuids.next();
+            assertTrue(TimeOrderedUuids.BYTE_ORDER.compare(previous, next) < 0, "id " + i + " is not greater than the previous one");
+            previous = next;
+        }
+    }
+
+    @Test
+    void ordersByUnsignedBytesUnlikeUuidCompareTo() {
+        var low = UUID.fromString("7fffffff-ffff-7fff-bfff-ffffffffffff");
+        var high = UUID.fromString("80000000-0000-7000-8000-000000000000");
+
+        assertTrue(low.compareTo(high) > 0);
+        assertTrue(TimeOrderedUuids.BYTE_ORDER.compare(low, high) < 0);
+        assertTrue(TimeOrderedUuids.BYTE_ORDER.compare(
+                UUID.fromString("00000000-0000-7000-0000-000000000001"),
+                UUID.fromString("00000000-0000-7000-8000-000000000000")) < 0);
+    }
+}
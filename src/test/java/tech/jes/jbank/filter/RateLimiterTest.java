@@ -0,0 +1,95 @@
+package tech.jes.jbank.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void allowsTheBurstAtOnceThenOneRequestPerInterval() {
+        var limiter = new RateLimiter(10, SECOND, 5);
+        var now = 1_000L;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.acquire("10.0.0.1", now));
+        }
+        assertEquals(SECOND / 10, limiter.acquire("10.0.0.1", now));
+
+        assertEquals(0, limiter.acquire("10.0.0.1", now + SECOND / 10));
+        assertTrue(limiter.acquire("10.0.0.1", now + SECOND / 10) > 0);
+    }
+
+    @Test
+    void refillsUpToTheBurstOnly() {
+        var limiter = new RateLimiter(10, SECOND, 3);
+        var now = 0L;
+
+        limiter.acquire("wallet", now);
+
+        var later = now + 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.acquire("wallet", later));
+        }
+        assertTrue(limiter.acquire("wallet", later) > 0);
+    }
+
+    @Test
+    void keepsOneBucketPerKey() {
+        var limiter = new RateLimiter(1, SECOND, 1);
+
+        assertEquals(0, limiter.acquire("a", 0));
+        assertTrue(limiter.acquire("a", 0) > 0);
+        assertEquals(0, limiter.acquire("b", 0));
+    }
+
+    @Test
+    void releaseGivesBackTheTokenTaken() {
+        var limiter = new RateLimiter(1, SECOND, 2);
+
+        assertEquals(0, limiter.acquire("10.0.0.1", 0));
+        assertEquals(0, limiter.acquire("10.0.0.1", 0));
+        limiter.release("10.0.0.1");
+
+        assertEquals(0, limiter.acquire("10.0.0.1", 0));
+        assertTrue(limiter.acquire("10.0.0.1", 0) > 0);
+    }
+
+    @Test
+    void evictsOnlyRefilledBuckets() {
+        var limiter = new RateLimiter(1, SECOND, 2);
+
+        limiter.acquire("idle", 0);
+        limiter.acquire("busy", 5 * SECOND);
+        limiter.acquire("busy", 5 * SECOND);
+
+        assertEquals(1, limiter.evictIdle(5 * SECOND));
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.acquire("busy", 5 * SECOND) > 0);
+    }
+
+    @Test
+    void neverAllowsMoreThanTheBurstUnderContention() throws InterruptedException {
+        var limiter = new RateLimiter(1, SECOND, 100);
+        var allowed = new AtomicInteger();
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.execute(() -> {
+                    if (limiter.acquire("10.0.0.1", 0) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(100, allowed.get());
+    }
+}
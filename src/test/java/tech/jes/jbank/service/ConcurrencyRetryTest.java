@@ -0,0 +1,59 @@
+package tech.jes.jbank.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import tech.jes.jbank.config.RetryProperties;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.exception.ConcurrentUpdateException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyRetryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyRetry retry = new ConcurrencyRetry(
+            new RetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(4), 2.0),
+            meterRegistry
+    );
+
+    @Test
+    void retriesUntilTheActionSucceeds() {
+        var attempts = new AtomicInteger();
+
+        var result = retry.execute("deposit", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Wallet.class, "id");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, meterRegistry.counter("jbank.concurrency.conflicts", "operation", "deposit").count());
+        assertEquals(2, meterRegistry.counter("jbank.concurrency.retries", "operation", "deposit").count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        var attempts = new AtomicInteger();
+
+        assertThrows(ConcurrentUpdateException.class, () -> retry.run("transfer", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Wallet.class, "id");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, meterRegistry.counter("jbank.concurrency.exhausted", "operation", "transfer").count());
+    }
+
+    @Test
+    void backOffBoundGrowsUpToTheCap() {
+        assertEquals(Duration.ofMillis(1).toNanos(), retry.backOffBound(1));
+        assertEquals(Duration.ofMillis(2).toNanos(), retry.backOffBound(2));
+        assertEquals(Duration.ofMillis(4).toNanos(), retry.backOffBound(5));
+    }
+}
@@ -0,0 +1,60 @@
+package tech.jes.jbank.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedKey() {
+        var filter = new CountingBloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("cpf:" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("cpf:" + i));
+        }
+        assertEquals(10_000, filter.size());
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheTarget() {
+        var filter = new CountingBloomFilter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("email:" + i + "@jbank.tech");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("email:new-" + i + "@jbank.tech")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void forgetsRemovedKeysButKeepsTheOthers() {
+        var filter = new CountingBloomFilter(1_000, 0.001);
+
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("cpf:" + i);
+        }
+        filter.remove("cpf:7");
+
+        assertFalse(filter.mightContain("cpf:7"));
+        for (int i = 0; i < 1_000; i++) {
+            if (i != 7) {
+                assertTrue(filter.mightContain("cpf:" + i));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package tech.jes.jbank.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import tech.jes.jbank.controller.dto.DepositMoneyDto;
+import tech.jes.jbank.entities.Deposit;
+import tech.jes.jbank.entities.Wallet;
+import tech.jes.jbank.exception.WalletNotFoundException;
+import tech.jes.jbank.repository.DepositRepository;
+import tech.jes.jbank.repository.WalletRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Runs the group commit writer against H2 in MySQL mode: deposits sent together wait for a full group of
+ * {@code GROUP_SIZE}, so each test knows which deposits shared a transaction.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:deposit-batcher;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.flyway.enabled=false",
+        "spring.docker.compose.enabled=false",
+        "jbank.rate-limit.enabled=false",
+        "jbank.deposit-batching.enabled=true",
+        "jbank.deposit-batching.max-batch-size=" + DepositBatcherTest.GROUP_SIZE,
+        "jbank.deposit-batching.max-wait=5s"
+})
+class DepositBatcherTest {
+
+    static final int GROUP_SIZE = 4;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final String IP_ADDRESS = "127.0.0.1";
+
+    @Autowired
+    private DepositBatcher depositBatcher;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletBalanceService walletBalanceService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private DepositRepository depositRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private LedgerService ledgerService;
+
+    @Test
+    void commitsAGroupAndFailsOnlyTheDepositToAMissingWallet() {
+        var plain = createWallet();
+        var hot = createWallet();
+        walletBalanceService.changeBalanceSlots(hot, 4);
+        var missing = UUID.randomUUID();
+        var groups = batchCount();
+
+        var results = depositTogether(List.of(
+                new Request(plain, "10.00"),
+                new Request(hot, "20.00"),
+                new Request(missing, "30.00"),
+                new Request(plain, "40.00")
+        ));
+
+        assertEquals(groups + 1, batchCount());
+        assertTrue(results.get(0).join());
+        assertTrue(results.get(1).join());
+        assertInstanceOf(WalletNotFoundException.class, causeOf(results.get(2)));
+        assertTrue(results.get(3).join());
+
+        assertEquals(new BigDecimal("50.00"), balanceOf(plain));
+        assertEquals(new BigDecimal("20.00"), balanceOf(hot));
+        assertEquals(3, depositsOf(plain, hot).size());
+    }
+
+    @Test
+    void failsEveryDepositOfAFailedGroupAndMovesNoMoney() {
+        var wallet = createWallet();
+        var failure = new IllegalStateException("ledger unavailable");
+        doThrow(failure).when(ledgerService)
+                .recordDeposit(argThat(deposit -> deposit.getDepositValue().compareTo(new BigDecimal("13.00")) == 0));
+
+        var results = depositTogether(List.of(
+                new Request(wallet, "10.00"),
+                new Request(wallet, "11.00"),
+                new Request(wallet, "12.00"),
+                new Request(wallet, "13.00")
+        ));
+
+        results.forEach(result -> assertSame(failure, causeOf(result)));
+        assertEquals(new BigDecimal("0.00"), balanceOf(wallet));
+        assertTrue(depositsOf(wallet).isEmpty());
+    }
+
+    @Test
+    @DirtiesContext
+    void fallsBackToTheCallersOwnTransactionOnceStopped() {
+        var wallet = createWallet();
+        depositBatcher.stop();
+
+        assertFalse(depositBatcher.isRunning());
+        assertFalse(depositBatcher.deposit(wallet, new BigDecimal("10.00"), IP_ADDRESS));
+
+        walletService.depositMoney(wallet, new DepositMoneyDto(new BigDecimal("25.00")), IP_ADDRESS);
+
+        assertEquals(new BigDecimal("25.00"), balanceOf(wallet));
+        assertEquals(1, depositsOf(wallet).size());
+    }
+
+    private record Request(UUID walletId, String value) {
+    }
+
+    // one thread per deposit, all blocked in the same group until it is full
+    private List<CompletableFuture<Boolean>> depositTogether(List<Request> requests) {
+        assertEquals(GROUP_SIZE, requests.size());
+
+        var results = new ArrayList<CompletableFuture<Boolean>>();
+        try (var executor = Executors.newFixedThreadPool(requests.size())) {
+            for (var request : requests) {
+                results.add(CompletableFuture.supplyAsync(() ->
+                        depositBatcher.deposit(request.walletId(), new BigDecimal(request.value()), IP_ADDRESS),
+                        executor));
+            }
+        }
+        return results;
+    }
+
+    private static Throwable causeOf(CompletableFuture<Boolean> result) {
+        return assertThrows(CompletionException.class, result::join).getCause();
+    }
+
+    private UUID createWallet() {
+        var n = SEQUENCE.incrementAndGet();
+        var wallet = new Wallet();
+        wallet.setCpf(String.format("%011d", n));
+        wallet.setEmail("batcher-" + n + "@jbank.tech");
+        wallet.setName("batcher " + n);
+        wallet.setBalance(new BigDecimal("0.00"));
+        return walletRepository.save(wallet).getWalletId();
+    }
+
+    private BigDecimal balanceOf(UUID walletId) {
+        return walletBalanceService.balanceOf(walletRepository.findById(walletId).orElseThrow());
+    }
+
+    private List<Deposit> depositsOf(UUID... walletIds) {
+        var ids = List.of(walletIds);
+        return depositRepository.findAll()
+                .stream()
+                .filter(deposit -> ids.contains(deposit.getWallet().getWalletId()))
+                .toList();
+    }
+
+    private long batchCount() {
+        return meterRegistry.get("jbank.deposits.batch.size").summary().count();
+    }
+}
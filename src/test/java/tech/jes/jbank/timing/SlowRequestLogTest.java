@@ -0,0 +1,52 @@
+package tech.jes.jbank.timing;
+
+import org.junit.jupiter.api.Test;
+import tech.jes.jbank.config.RequestTimingProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowRequestLogTest {
+
+    @Test
+    void isEmptyUntilARequestIsRecorded() {
+        assertTrue(log(4).recent().isEmpty());
+    }
+
+    @Test
+    void returnsNewestFirst() {
+        var log = log(4);
+
+        log.record(request("/a"));
+        log.record(request("/b"));
+
+        assertEquals(List.of("/b", "/a"), paths(log));
+    }
+
+    @Test
+    void keepsOnlyTheLatestCapacityRequests() {
+        var log = log(3);
+
+        for (var path : List.of("/1", "/2", "/3", "/4", "/5")) {
+            log.record(request(path));
+        }
+
+        assertEquals(List.of("/5", "/4", "/3"), paths(log));
+    }
+
+    private static SlowRequestLog log(int capacity) {
+        return new SlowRequestLog(new RequestTimingProperties(true, true, Duration.ofMillis(500), capacity));
+    }
+
+    private static SlowRequest request(String path) {
+        return new SlowRequest(Instant.EPOCH, "GET", path, 200, 600.0, List.of());
+    }
+
+    private static List<String> paths(SlowRequestLog log) {
+        return log.recent().stream().map(SlowRequest::path).toList();
+    }
+}